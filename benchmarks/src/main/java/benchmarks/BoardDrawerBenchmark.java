@@ -0,0 +1,54 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.ChessPosition;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import ui.BoardDrawer;
+
+/**
+ * Measures drawing a board in the client, with and without a piece's moves highlighted.
+ *
+ * <p>{@link BoardDrawer} prints to the {@code System.out} it finds when the class loads, so setup
+ * swaps in a stream that discards everything, loads the class, and puts the real stream back.
+ * What's measured is building and writing the escape sequences, not the terminal drawing them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BoardDrawerBenchmark {
+
+  private ChessPosition chosenPiece;
+
+  @Setup
+  public void silenceBoardDrawer() throws ClassNotFoundException {
+    PrintStream stdout = System.out;
+    System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    try {
+      Class.forName(BoardDrawer.class.getName(), true, BoardDrawer.class.getClassLoader());
+    } finally {
+      System.setOut(stdout);
+    }
+  }
+
+  @Setup
+  public void choosePiece(GamePosition position) {
+    boolean whiteToMove = position.game.getTeamTurn() == ChessGame.TeamColor.WHITE;
+    chosenPiece = whiteToMove ? new ChessPosition(1, 7) : new ChessPosition(8, 7);
+  }
+
+  @Benchmark
+  public void drawBoard(GamePosition position) {
+    BoardDrawer.drawBoard(position.game, true, null);
+  }
+
+  @Benchmark
+  public void drawBoardWithHighlights(GamePosition position) {
+    BoardDrawer.drawBoard(position.game, true, chosenPiece);
+  }
+}
@@ -0,0 +1,86 @@
+package benchmarks;
+
+import chess.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the game rules the server runs on every move: move lists, moves and game-over checks.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ChessGameBenchmark {
+
+  private ChessBoard startingBoard;
+  private ChessGame.TeamColor startingTurn;
+  private final List<ChessPosition> piecePositions = new ArrayList<>();
+  private final List<ChessMove> legalMoves = new ArrayList<>();
+  private int nextMove;
+
+  @Setup
+  public void findMoves(GamePosition position) {
+    ChessGame game = position.game;
+    startingBoard = new ChessBoard(game.getBoard());
+    startingTurn = game.getTeamTurn();
+
+    for (int row = 1; row <= 8; row++) {
+      for (int col = 1; col <= 8; col++) {
+        ChessPosition piecePosition = new ChessPosition(row, col);
+        ChessPiece piece = startingBoard.getPiece(piecePosition);
+        if (piece != null && piece.getTeamColor() == startingTurn) {
+          piecePositions.add(piecePosition);
+          legalMoves.addAll(game.validMoves(piecePosition));
+        }
+      }
+    }
+  }
+
+  /** Lists the legal moves of every piece belonging to the team to move. */
+  @Benchmark
+  public void validMoves(GamePosition position, Blackhole blackhole) {
+    for (ChessPosition piecePosition : piecePositions) {
+      blackhole.consume(position.game.validMoves(piecePosition));
+    }
+  }
+
+  /**
+   * Makes one legal move, cycling through all of them. The game is reset from a copy of the
+   * starting board first, so the copy is part of the measured time.
+   */
+  @Benchmark
+  public ChessGame makeMove(GamePosition position) throws InvalidMoveException {
+    ChessGame game = position.game;
+    game.setBoard(new ChessBoard(startingBoard));
+    game.setTeamTurn(startingTurn);
+
+    game.makeMove(legalMoves.get(nextMove));
+    nextMove = (nextMove + 1) % legalMoves.size();
+    return game;
+  }
+
+  /**
+   * Checks for checkmate. The game remembers its status until the board changes, so the board is
+   * set again first to make every invocation work the answer out instead of reading it back.
+   */
+  @Benchmark
+  public boolean isInCheckmate(GamePosition position) {
+    ChessGame game = position.game;
+    game.setBoard(game.getBoard());
+    return game.isInCheckmate(startingTurn);
+  }
+
+  /** Checks for stalemate, setting the board again first for the same reason as checkmate. */
+  @Benchmark
+  public boolean isInStalemate(GamePosition position) {
+    ChessGame game = position.game;
+    game.setBoard(game.getBoard());
+    return game.isInStalemate(startingTurn);
+  }
+}
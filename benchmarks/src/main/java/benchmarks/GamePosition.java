@@ -0,0 +1,35 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.perft.PerftPosition;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The game a benchmark runs against, loaded from one of the perft reference positions so results
+ * cover both the opening and a crowded middlegame.
+ */
+@State(Scope.Thread)
+public class GamePosition {
+
+  @Param({"start position", "middlegame"})
+  public String position;
+
+  public ChessGame game;
+
+  @Setup
+  public void loadGame() {
+    game = createGame(position);
+  }
+
+  static ChessGame createGame(String name) {
+    for (PerftPosition reference : PerftPosition.REFERENCE_POSITIONS) {
+      if (reference.name().equals(name)) {
+        return reference.createGame();
+      }
+    }
+    throw new IllegalArgumentException("No reference position named " + name);
+  }
+}
@@ -0,0 +1,42 @@
+package benchmarks;
+
+import chess.ChessGame;
+import com.google.gson.Gson;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures saving and loading a game the way {@code SQLGameDAO} does it, including creating a new
+ * {@link Gson} for every call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GsonBenchmark {
+
+  private String serializedGame;
+
+  @Setup
+  public void serializeGame(GamePosition position) {
+    serializedGame = new Gson().toJson(position.game);
+  }
+
+  @Benchmark
+  public String serialize(GamePosition position) {
+    return new Gson().toJson(position.game);
+  }
+
+  @Benchmark
+  public ChessGame deserialize() {
+    return new Gson().fromJson(serializedGame, ChessGame.class);
+  }
+
+  @Benchmark
+  public ChessGame roundTrip(GamePosition position) {
+    String json = new Gson().toJson(position.game);
+    return new Gson().fromJson(json, ChessGame.class);
+  }
+}
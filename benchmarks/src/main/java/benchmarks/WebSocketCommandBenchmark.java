@@ -0,0 +1,75 @@
+package benchmarks;
+
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import com.google.gson.Gson;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import websocket.commands.MakeMoveCommand;
+import websocket.commands.UserGameCommand;
+
+/**
+ * Measures turning an incoming WebSocket message into a command the way {@code
+ * WebSocketHandler.onMessage} does: the message is parsed once to read its type, and a second time
+ * as a {@link MakeMoveCommand} if it carries a move.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WebSocketCommandBenchmark {
+
+  private static final String AUTH_TOKEN = "4f1c2b7e-8d3a-4e6f-9b0c-1a2d3e4f5a6b";
+
+  private String connectMessage;
+  private String makeMoveMessage;
+  private String promotionMessage;
+
+  @Setup
+  public void createMessages() {
+    Gson gson = new Gson();
+    connectMessage =
+        gson.toJson(new UserGameCommand(UserGameCommand.CommandType.CONNECT, AUTH_TOKEN, 42));
+    makeMoveMessage =
+        gson.toJson(
+            new MakeMoveCommand(
+                UserGameCommand.CommandType.MAKE_MOVE,
+                AUTH_TOKEN,
+                42,
+                new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null)));
+    promotionMessage =
+        gson.toJson(
+            new MakeMoveCommand(
+                UserGameCommand.CommandType.MAKE_MOVE,
+                AUTH_TOKEN,
+                42,
+                new ChessMove(
+                    new ChessPosition(7, 1), new ChessPosition(8, 1), ChessPiece.PieceType.QUEEN)));
+  }
+
+  @Benchmark
+  public ChessMove parseConnect() {
+    return parse(connectMessage);
+  }
+
+  @Benchmark
+  public ChessMove parseMakeMove() {
+    return parse(makeMoveMessage);
+  }
+
+  @Benchmark
+  public ChessMove parsePromotion() {
+    return parse(promotionMessage);
+  }
+
+  private ChessMove parse(String message) {
+    UserGameCommand command = new Gson().fromJson(message, UserGameCommand.class);
+    if (command.getCommandType() == UserGameCommand.CommandType.MAKE_MOVE) {
+      return new Gson().fromJson(message, MakeMoveCommand.class).move;
+    }
+    return null;
+  }
+}
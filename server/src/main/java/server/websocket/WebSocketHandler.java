@@ -122,26 +122,37 @@ public class WebSocketHandler {
             gameID, gameData.whiteUsername(), gameData.blackUsername(), gameData.gameName(), game);
     updateGame(session, updatedGameData);
 
-    ChessGame.TeamColor otherTeamColor = getOtherTeamColor(session, gameID, username);
-
-    if (game.isInCheckmate(otherTeamColor)) {
-      sendNotificationToSession(session, "CHECKMATE! YOU WON!");
-      sendNotificationToOthers(gameID, username, String.format("Checkmate. %s won", username));
-      updateGameState(session, gameID, GameState.OVER);
-      return;
-    }
-
-    if (game.isInStalemate(otherTeamColor)) {
-      sendNotificationToSession(session, "Stalemate");
-      sendNotificationToOthers(gameID, username, "Stalemate. It's a draw");
-      updateGameState(session, gameID, GameState.OVER);
-      return;
+    // The move switched the turn, so the status is the other team's
+    switch (game.status()) {
+      case CHECKMATE -> {
+        sendNotificationToSession(session, "CHECKMATE! YOU WON!");
+        sendNotificationToOthers(gameID, username, String.format("Checkmate. %s won", username));
+        updateGameState(session, gameID, GameState.OVER);
+      }
+      case STALEMATE -> {
+        sendNotificationToSession(session, "Stalemate");
+        sendNotificationToOthers(gameID, username, "Stalemate. It's a draw");
+        updateGameState(session, gameID, GameState.OVER);
+      }
+      case INSUFFICIENT_MATERIAL ->
+          endInDraw(session, gameID, username, "Neither side can checkmate with what's left");
+      case FIFTY_MOVE_RULE ->
+          endInDraw(session, gameID, username, "Fifty moves without a capture or pawn move");
+      case THREEFOLD_REPETITION ->
+          endInDraw(session, gameID, username, "The same position came up three times");
+      case CHECK -> {
+        sendNotificationToSession(session, "Check");
+        sendNotificationToOthers(gameID, username, "Check");
+      }
+      case IN_PROGRESS -> {}
     }
+  }
 
-    if (game.isInCheck(otherTeamColor)) {
-      sendNotificationToSession(session, "Check");
-      sendNotificationToOthers(gameID, username, "Check");
-    }
+  private void endInDraw(Session session, int gameID, String username, String reason)
+      throws IOException {
+    sendNotificationToSession(session, reason + ". It's a draw");
+    sendNotificationToOthers(gameID, username, reason + ". It's a draw");
+    updateGameState(session, gameID, GameState.OVER);
   }
 
   private void leave(String authToken, int gameID, Session session) throws IOException {
@@ -255,15 +266,6 @@ public class WebSocketHandler {
     return null;
   }
 
-  private ChessGame.TeamColor getOtherTeamColor(Session session, int gameID, String username)
-      throws IOException {
-    ChessGame.TeamColor userTeamColor = getTeamColor(session, gameID, username);
-    if (userTeamColor == ChessGame.TeamColor.WHITE) {
-      return ChessGame.TeamColor.BLACK;
-    }
-    return ChessGame.TeamColor.WHITE;
-  }
-
   private ChessGame getChessGame(Session session, int gameID) throws IOException {
     GameData gameData = getGameData(session, gameID);
     assert gameData != null;
@@ -1,15 +1,43 @@
 package chess;
 
+import chess.rules.AttackTables;
+import chess.rules.PackedMove;
+import chess.rules.SlidingAttacks;
+import com.google.gson.annotations.JsonAdapter;
 import java.util.*;
 
 /**
  * A chessboard that can hold and rearrange chess pieces.
  *
+ * <p>The board is stored as bitboards: one 64-bit set per piece type and team, one per team, and
+ * one for every occupied square. Bit {@code (row - 1) * 8 + (column - 1)} stands for the square at
+ * that row and column. A parallel array of the pieces themselves answers {@link #getPiece} without
+ * searching the sets.
+ *
+ * <p>Each king's square, the number of pieces of each kind, each team's material and the {@link
+ * PieceSquareTables} scores are kept up to date as pieces are placed and removed, so reading them
+ * never scans the board.
+ *
  * <p>Note: You can add to this class, but you may not alter signature of the existing methods.
  */
+@JsonAdapter(ChessBoardAdapter.class)
 public class ChessBoard {
 
-  private ChessPiece[][] board = new ChessPiece[8][8];
+  private static final long LIGHT_SQUARES = 0x55AA55AA55AA55AAL;
+
+  private final long[] pieceBitboards = new long[12];
+  private final long[] teamBitboards = new long[2];
+  private long occupiedBitboard;
+  private final ChessPiece[] squares = new ChessPiece[64];
+  private long zobristKey;
+  private long pawnKey;
+  private final int[] kingSquares = {-1, -1};
+  private final int[] pieceCounts = new int[12];
+  private final int[] teamPieceCounts = new int[2];
+  private final int[] teamMaterial = new int[2];
+  private int midgameBalance;
+  private int endgameBalance;
+  private int gamePhase;
 
   public ChessBoard() {}
 
@@ -19,18 +47,19 @@ public class ChessBoard {
    * @param other The board being copied
    */
   public ChessBoard(ChessBoard other) {
-    this.board = new ChessPiece[8][8];
-
-    for (int row = 0; row < 8; row++) {
-      for (int col = 0; col < 8; col++) {
-        ChessPiece piece = other.board[row][col];
-        if (piece != null) {
-          this.board[row][col] = new ChessPiece(piece);
-        } else {
-          this.board[row][col] = null;
-        }
-      }
-    }
+    System.arraycopy(other.pieceBitboards, 0, pieceBitboards, 0, pieceBitboards.length);
+    System.arraycopy(other.teamBitboards, 0, teamBitboards, 0, teamBitboards.length);
+    System.arraycopy(other.squares, 0, squares, 0, squares.length);
+    occupiedBitboard = other.occupiedBitboard;
+    zobristKey = other.zobristKey;
+    pawnKey = other.pawnKey;
+    System.arraycopy(other.kingSquares, 0, kingSquares, 0, kingSquares.length);
+    System.arraycopy(other.pieceCounts, 0, pieceCounts, 0, pieceCounts.length);
+    System.arraycopy(other.teamPieceCounts, 0, teamPieceCounts, 0, teamPieceCounts.length);
+    System.arraycopy(other.teamMaterial, 0, teamMaterial, 0, teamMaterial.length);
+    midgameBalance = other.midgameBalance;
+    endgameBalance = other.endgameBalance;
+    gamePhase = other.gamePhase;
   }
 
   /**
@@ -40,9 +69,11 @@ public class ChessBoard {
    * @param piece The piece to add
    */
   public void addPiece(ChessPosition position, ChessPiece piece) {
-    int row = position.getRow() - 1;
-    int col = position.getColumn() - 1;
-    board[row][col] = piece;
+    int square = squareOf(position);
+    removePieceAt(square);
+    if (piece != null) {
+      putPieceAt(square, ChessPiece.of(piece.getTeamColor(), piece.getPieceType()));
+    }
   }
 
   /**
@@ -52,10 +83,7 @@ public class ChessBoard {
    * @return Either the piece at the position, or null if no piece is at that position
    */
   public ChessPiece getPiece(ChessPosition position) {
-    int row = position.getRow() - 1;
-    int col = position.getColumn() - 1;
-
-    return board[row][col];
+    return squares[squareOf(position)];
   }
 
   /**
@@ -65,48 +93,75 @@ public class ChessBoard {
    * @return Either the position of the king, or null if no king is found on the board
    */
   public ChessPosition getKingPosition(ChessGame.TeamColor teamColor) {
-    for (int row = 1; row <= 8; row++) {
-      for (int col = 1; col <= 8; col++) {
-        ChessPosition position = new ChessPosition(row, col);
-        ChessPiece piece = getPiece(position);
-
-        if (piece != null
-            && piece.getTeamColor() == teamColor
-            && piece.getPieceType() == ChessPiece.PieceType.KING) {
-          return position;
-        }
-      }
-    }
-    return null;
+    int square = kingSquares[teamColor.ordinal()];
+    return (square >= 0) ? ChessPosition.fromSquare(square) : null;
   }
 
   /**
-   * Gets all positions the given team can move to on their turn
+   * Gets the square of the given team's king
+   *
+   * @param teamColor Which team to get the king's square for
+   * @return The king's square, or -1 if the team has no king on the board
+   */
+  public int getKingSquare(ChessGame.TeamColor teamColor) {
+    return kingSquares[teamColor.ordinal()];
+  }
+
+  /**
+   * Determines whether any of a team's pieces attack a square. Rather than generating the team's
+   * moves, this looks outward from the square as each type of piece would and stops at the first
+   * attacker it finds.
    *
-   * @param teamColor Which team to get all available positions for
-   * @return The set of board positions that the team can move to
+   * @param square The square to test
+   * @param byColor The team whose pieces might attack the square
+   * @return True if at least one of the team's pieces attacks the square
    */
-  Set<ChessPosition> getAvailablePositions(ChessGame.TeamColor teamColor) {
-    Set<ChessPosition> occupiablePositions = new HashSet<>();
+  public boolean isSquareAttacked(int square, ChessGame.TeamColor byColor) {
+    return isSquareAttacked(square, byColor, occupiedBitboard);
+  }
 
-    for (int row = 1; row <= 8; row++) {
-      for (int col = 1; col <= 8; col++) {
-        ChessPosition position = new ChessPosition(row, col);
-        ChessPiece piece = getPiece(position);
+  /**
+   * Determines whether any of a team's pieces attack a square, as if the occupied squares were
+   * different. Sliding pieces are blocked by the given occupancy instead of the board's.
+   *
+   * @param square The square to test
+   * @param byColor The team whose pieces might attack the square
+   * @param occupied A bitboard of the squares to treat as occupied
+   * @return True if at least one of the team's pieces attacks the square
+   */
+  public boolean isSquareAttacked(int square, ChessGame.TeamColor byColor, long occupied) {
+    int offset = byColor.ordinal() * 6;
+    ChessGame.TeamColor defenderColor =
+        (byColor == ChessGame.TeamColor.WHITE)
+            ? ChessGame.TeamColor.BLACK
+            : ChessGame.TeamColor.WHITE;
+
+    // A pawn attacks the square if a defending pawn on the square would attack the pawn
+    long pawns = pieceBitboards[offset + ChessPiece.PieceType.PAWN.ordinal()];
+    if ((AttackTables.pawnAttacks(defenderColor, square) & pawns) != 0) {
+      return true;
+    }
 
-        if (piece == null || piece.getTeamColor() == teamColor) {
-          continue;
-        }
+    long knights = pieceBitboards[offset + ChessPiece.PieceType.KNIGHT.ordinal()];
+    if ((AttackTables.knightAttacks(square) & knights) != 0) {
+      return true;
+    }
 
-        Collection<ChessMove> pieceMoves = piece.pieceMoves(this, position);
+    long kings = pieceBitboards[offset + ChessPiece.PieceType.KING.ordinal()];
+    if ((AttackTables.kingAttacks(square) & kings) != 0) {
+      return true;
+    }
 
-        for (ChessMove move : pieceMoves) {
-          occupiablePositions.add(move.getEndPosition());
-        }
-      }
+    long queens = pieceBitboards[offset + ChessPiece.PieceType.QUEEN.ordinal()];
+    long bishopsAndQueens = pieceBitboards[offset + ChessPiece.PieceType.BISHOP.ordinal()] | queens;
+    if (bishopsAndQueens != 0
+        && (SlidingAttacks.bishopAttacks(square, occupied) & bishopsAndQueens) != 0) {
+      return true;
     }
 
-    return occupiablePositions;
+    long rooksAndQueens = pieceBitboards[offset + ChessPiece.PieceType.ROOK.ordinal()] | queens;
+    return rooksAndQueens != 0
+        && (SlidingAttacks.rookAttacks(square, occupied) & rooksAndQueens) != 0;
   }
 
   /**
@@ -119,23 +174,79 @@ public class ChessBoard {
    */
   public void movePiece(
       ChessPosition startPosition, ChessPosition endPosition, ChessPiece.PieceType promotionPiece) {
-    ChessPiece piece = getPiece(startPosition);
+    int startSquare = squareOf(startPosition);
+    int endSquare = squareOf(endPosition);
+    ChessPiece piece = squares[startSquare];
 
-    int startRow = startPosition.getRow() - 1;
-    int startCol = startPosition.getColumn() - 1;
-    board[startRow][startCol] = null;
-
-    int endRow = endPosition.getRow() - 1;
-    int endCol = endPosition.getColumn() - 1;
+    removePieceAt(startSquare);
+    removePieceAt(endSquare);
 
     if (piece.getPieceType() == ChessPiece.PieceType.PAWN && promotionPiece != null) {
       ChessGame.TeamColor teamColor = piece.getTeamColor();
-      board[endRow][endCol] = new ChessPiece(teamColor, promotionPiece);
+      putPieceAt(endSquare, ChessPiece.of(teamColor, promotionPiece));
+    } else {
+      putPieceAt(endSquare, piece);
+    }
+  }
+
+  /**
+   * Makes a move encoded with {@link PackedMove} on this board in place, so move generation and
+   * search can take it back with {@link #unmakeMove(int, int)} instead of copying the board.
+   *
+   * @param move The encoded move to make
+   * @return An undo token for {@link #unmakeMove(int, int)}: the moved piece's index in the low
+   *     four bits and the captured piece's index plus one in the next four, zero for no capture
+   */
+  public int makeMove(int move) {
+    int startSquare = PackedMove.startSquare(move);
+    int endSquare = PackedMove.endSquare(move);
+    ChessPiece movedPiece = squares[startSquare];
+    ChessPiece capturedPiece = squares[endSquare];
+
+    removePieceAt(startSquare);
+    removePieceAt(endSquare);
+
+    ChessPiece.PieceType promotionPiece = PackedMove.promotionPiece(move);
+    if (promotionPiece != null) {
+      putPieceAt(endSquare, ChessPiece.of(movedPiece.getTeamColor(), promotionPiece));
     } else {
-      board[endRow][endCol] = piece;
+      putPieceAt(endSquare, movedPiece);
+    }
+
+    int capturedIndex = (capturedPiece != null) ? capturedPiece.getIndex() + 1 : 0;
+    return movedPiece.getIndex() | (capturedIndex << 4);
+  }
+
+  /**
+   * Takes back a move made with {@link #makeMove(int)}
+   *
+   * @param move The encoded move that was made
+   * @param undo The undo token returned when the move was made
+   */
+  public void unmakeMove(int move, int undo) {
+    int startSquare = PackedMove.startSquare(move);
+    int endSquare = PackedMove.endSquare(move);
+
+    removePieceAt(endSquare);
+    putPieceAt(startSquare, ChessPiece.fromIndex(undo & 0xF));
+
+    int capturedIndex = (undo >>> 4) & 0xF;
+    if (capturedIndex != 0) {
+      putPieceAt(endSquare, ChessPiece.fromIndex(capturedIndex - 1));
     }
   }
 
+  /**
+   * @param undo An undo token from {@link #makeMove(int)}
+   * @return True if the move captured a piece or moved a pawn, which resets the halfmove clock
+   */
+  public static boolean isCaptureOrPawnMove(int undo) {
+    boolean captured = (undo & 0xF0) != 0;
+    boolean pawnMoved =
+        ChessPiece.fromIndex(undo & 0xF).getPieceType() == ChessPiece.PieceType.PAWN;
+    return captured || pawnMoved;
+  }
+
   /**
    * Determines whether the given position is actually on the board
    *
@@ -156,37 +267,250 @@ public class ChessBoard {
    * @return True if the position is occupied by another piece
    */
   public boolean isOccupiedAt(ChessPosition position) {
-    return getPiece(position) != null;
+    return (occupiedBitboard & (1L << squareOf(position))) != 0;
+  }
+
+  /**
+   * Gets the squares holding one kind of piece
+   *
+   * @param teamColor The team the pieces belong to
+   * @param type The type of piece
+   * @return A bitboard with one bit set for every square holding that piece
+   */
+  public long getPieceBitboard(ChessGame.TeamColor teamColor, ChessPiece.PieceType type) {
+    return pieceBitboards[teamColor.ordinal() * 6 + type.ordinal()];
+  }
+
+  /**
+   * Gets the squares holding any of a team's pieces
+   *
+   * @param teamColor The team to get the pieces of
+   * @return A bitboard with one bit set for every square holding one of the team's pieces
+   */
+  public long getTeamBitboard(ChessGame.TeamColor teamColor) {
+    return teamBitboards[teamColor.ordinal()];
+  }
+
+  /**
+   * @return A bitboard with one bit set for every occupied square
+   */
+  public long getOccupiedBitboard() {
+    return occupiedBitboard;
+  }
+
+  /**
+   * Gets how many of one kind of piece are on the board
+   *
+   * @param teamColor The team the pieces belong to
+   * @param type The type of piece
+   * @return The number of that team's pieces of that type
+   */
+  public int getPieceCount(ChessGame.TeamColor teamColor, ChessPiece.PieceType type) {
+    return pieceCounts[teamColor.ordinal() * 6 + type.ordinal()];
+  }
+
+  /**
+   * @param teamColor The team to count the pieces of
+   * @return The number of pieces the team has on the board, king included
+   */
+  public int getPieceCount(ChessGame.TeamColor teamColor) {
+    return teamPieceCounts[teamColor.ordinal()];
+  }
+
+  /**
+   * @param teamColor The team to total the material of
+   * @return The summed {@link ChessPiece.PieceType#getMaterialValue} of the team's pieces
+   */
+  public int getMaterial(ChessGame.TeamColor teamColor) {
+    return teamMaterial[teamColor.ordinal()];
+  }
+
+  /**
+   * @return White's material minus black's, positive when white is ahead
+   */
+  public int getMaterialBalance() {
+    return teamMaterial[0] - teamMaterial[1];
+  }
+
+  /**
+   * @return The sum of every piece's middlegame {@link PieceSquareTables} value, positive when
+   *     white is ahead
+   */
+  public int getMidgameBalance() {
+    return midgameBalance;
+  }
+
+  /**
+   * @return The sum of every piece's endgame {@link PieceSquareTables} value, positive when white
+   *     is ahead
+   */
+  public int getEndgameBalance() {
+    return endgameBalance;
+  }
+
+  /**
+   * @return The summed {@link PieceSquareTables#phase} of the pieces on the board, {@link
+   *     PieceSquareTables#MAX_PHASE} at the start of a game and falling as pieces are captured
+   */
+  public int getGamePhase() {
+    return gamePhase;
+  }
+
+  /**
+   * Determines whether the pieces left can't checkmate with any series of moves: kings alone, a
+   * single knight, or bishops that all stand on squares of one color
+   *
+   * @return True if neither team can ever deliver checkmate
+   */
+  public boolean hasInsufficientMaterial() {
+    for (ChessGame.TeamColor teamColor : ChessGame.TeamColor.values()) {
+      if (getPieceCount(teamColor, ChessPiece.PieceType.PAWN) != 0
+          || getPieceCount(teamColor, ChessPiece.PieceType.ROOK) != 0
+          || getPieceCount(teamColor, ChessPiece.PieceType.QUEEN) != 0) {
+        return false;
+      }
+    }
+
+    int knights =
+        getPieceCount(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT)
+            + getPieceCount(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT);
+    long bishops =
+        getPieceBitboard(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP)
+            | getPieceBitboard(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP);
+
+    if (knights == 0) {
+      return (bishops & LIGHT_SQUARES) == 0 || (bishops & ~LIGHT_SQUARES) == 0;
+    }
+    return knights == 1 && bishops == 0;
+  }
+
+  /**
+   * Gets the Zobrist key of the pieces on this board. The key is kept up to date as pieces are
+   * added and moved, so reading it never rescans the board. Equal boards always have equal keys.
+   *
+   * @return A 64-bit hash of where every piece stands
+   */
+  public long getZobristKey() {
+    return zobristKey;
+  }
+
+  /**
+   * Gets the Zobrist key of the position on this board with a given team to move, the same key
+   * {@link ChessGame#getZobristKey} gives for a game in this position
+   *
+   * @param teamToMove The team whose turn it is
+   * @return A 64-bit hash of where every piece stands and whose turn it is
+   */
+  public long getZobristKey(ChessGame.TeamColor teamToMove) {
+    return (teamToMove == ChessGame.TeamColor.BLACK)
+        ? zobristKey ^ Zobrist.BLACK_TO_MOVE
+        : zobristKey;
+  }
+
+  /**
+   * Gets the Zobrist key of the pawns on this board alone, which only changes when a pawn moves, is
+   * captured or promotes. Caches of pawn structure terms use it to recognize a structure they have
+   * already scored.
+   *
+   * @return A 64-bit hash of where every pawn stands
+   */
+  public long getPawnKey() {
+    return pawnKey;
   }
 
   /** Sets the board to the default starting board (How the game of chess normally starts) */
   public void resetBoard() {
-    board = new ChessPiece[8][8];
-
-    board[0][0] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK);
-    board[0][1] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT);
-    board[0][2] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP);
-    board[0][3] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN);
-    board[0][4] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING);
-    board[0][5] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP);
-    board[0][6] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT);
-    board[0][7] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK);
+    Arrays.fill(pieceBitboards, 0);
+    Arrays.fill(teamBitboards, 0);
+    Arrays.fill(squares, null);
+    occupiedBitboard = 0;
+    zobristKey = 0;
+    pawnKey = 0;
+    Arrays.fill(kingSquares, -1);
+    Arrays.fill(pieceCounts, 0);
+    Arrays.fill(teamPieceCounts, 0);
+    Arrays.fill(teamMaterial, 0);
+    midgameBalance = 0;
+    endgameBalance = 0;
+    gamePhase = 0;
+
+    ChessPiece.PieceType[] backRow = {
+      ChessPiece.PieceType.ROOK,
+      ChessPiece.PieceType.KNIGHT,
+      ChessPiece.PieceType.BISHOP,
+      ChessPiece.PieceType.QUEEN,
+      ChessPiece.PieceType.KING,
+      ChessPiece.PieceType.BISHOP,
+      ChessPiece.PieceType.KNIGHT,
+      ChessPiece.PieceType.ROOK
+    };
 
     for (int col = 0; col < 8; col++) {
-      board[1][col] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN);
+      putPieceAt(col, ChessPiece.of(ChessGame.TeamColor.WHITE, backRow[col]));
+      putPieceAt(8 + col, ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+      putPieceAt(48 + col, ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+      putPieceAt(56 + col, ChessPiece.of(ChessGame.TeamColor.BLACK, backRow[col]));
+    }
+  }
+
+  private int squareOf(ChessPosition position) {
+    if (!isRealPosition(position)) {
+      throw new IndexOutOfBoundsException("Position " + position + " is off the board");
     }
+    return position.getSquare();
+  }
 
-    board[7][0] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK);
-    board[7][1] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT);
-    board[7][2] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP);
-    board[7][3] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN);
-    board[7][4] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING);
-    board[7][5] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP);
-    board[7][6] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT);
-    board[7][7] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK);
+  private void putPieceAt(int square, ChessPiece piece) {
+    long bit = 1L << square;
+    int pieceIndex = piece.getIndex();
+    int team = piece.getTeamColor().ordinal();
+    pieceBitboards[pieceIndex] |= bit;
+    teamBitboards[team] |= bit;
+    occupiedBitboard |= bit;
+    zobristKey ^= Zobrist.pieceKey(pieceIndex, square);
+    squares[square] = piece;
+
+    pieceCounts[pieceIndex]++;
+    teamPieceCounts[team]++;
+    teamMaterial[team] += piece.getPieceType().getMaterialValue();
+    if (piece.getPieceType() == ChessPiece.PieceType.PAWN) {
+      pawnKey ^= Zobrist.pieceKey(pieceIndex, square);
+    }
+    midgameBalance += PieceSquareTables.midgame(pieceIndex, square);
+    endgameBalance += PieceSquareTables.endgame(pieceIndex, square);
+    gamePhase += PieceSquareTables.phase(piece.getPieceType());
+    if (piece.getPieceType() == ChessPiece.PieceType.KING) {
+      kingSquares[team] = square;
+    }
+  }
 
-    for (int col = 0; col < 8; col++) {
-      board[6][col] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN);
+  private void removePieceAt(int square) {
+    ChessPiece piece = squares[square];
+    if (piece == null) {
+      return;
+    }
+    long bit = 1L << square;
+    int pieceIndex = piece.getIndex();
+    int team = piece.getTeamColor().ordinal();
+    pieceBitboards[pieceIndex] &= ~bit;
+    teamBitboards[team] &= ~bit;
+    occupiedBitboard &= ~bit;
+    zobristKey ^= Zobrist.pieceKey(pieceIndex, square);
+    squares[square] = null;
+
+    pieceCounts[pieceIndex]--;
+    teamPieceCounts[team]--;
+    teamMaterial[team] -= piece.getPieceType().getMaterialValue();
+    if (piece.getPieceType() == ChessPiece.PieceType.PAWN) {
+      pawnKey ^= Zobrist.pieceKey(pieceIndex, square);
+    }
+    midgameBalance -= PieceSquareTables.midgame(pieceIndex, square);
+    endgameBalance -= PieceSquareTables.endgame(pieceIndex, square);
+    gamePhase -= PieceSquareTables.phase(piece.getPieceType());
+    if (piece.getPieceType() == ChessPiece.PieceType.KING) {
+      // A board set up by hand can hold a second king, which takes over once this one is gone
+      long kings = pieceBitboards[pieceIndex];
+      kingSquares[team] = (kings != 0) ? Long.numberOfTrailingZeros(kings) : -1;
     }
   }
 
@@ -199,12 +523,12 @@ public class ChessBoard {
       return false;
     }
     ChessBoard that = (ChessBoard) o;
-    return Objects.deepEquals(board, that.board);
+    return zobristKey == that.zobristKey && Arrays.equals(pieceBitboards, that.pieceBitboards);
   }
 
   @Override
   public int hashCode() {
-    return Arrays.deepHashCode(board);
+    return Long.hashCode(zobristKey);
   }
 
   @Override
@@ -213,7 +537,7 @@ public class ChessBoard {
     for (int row = 7; row >= 0; row--) {
       sb.append("|");
       for (int col = 0; col < 8; col++) {
-        ChessPiece piece = board[row][col];
+        ChessPiece piece = squares[row * 8 + col];
         sb.append((piece != null) ? piece.toString() : " ");
         sb.append("|");
       }
@@ -0,0 +1,95 @@
+package chess;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+
+/**
+ * Serializes a {@link ChessBoard} as the piece placement field of a FEN record, such as {@code
+ * "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR"}. Reading also accepts the 8x8 grid of pieces the
+ * board was written as back when it stored a {@code ChessPiece[][]}, so games saved in the old
+ * format still load. Either way the board is rebuilt through {@link ChessBoard#addPiece}.
+ */
+class ChessBoardAdapter extends TypeAdapter<ChessBoard> {
+
+  @Override
+  public void write(JsonWriter out, ChessBoard board) throws IOException {
+    if (board == null) {
+      out.nullValue();
+      return;
+    }
+
+    StringBuilder placement = new StringBuilder(72);
+    Fen.appendBoard(board, placement);
+    out.value(placement.toString());
+  }
+
+  @Override
+  public ChessBoard read(JsonReader in) throws IOException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+    if (in.peek() == JsonToken.STRING) {
+      try {
+        return Fen.parseBoard(in.nextString());
+      } catch (IllegalArgumentException ex) {
+        throw new JsonParseException(ex.getMessage(), ex);
+      }
+    }
+
+    ChessBoard board = new ChessBoard();
+
+    in.beginObject();
+    while (in.hasNext()) {
+      if (!in.nextName().equals("board")) {
+        in.skipValue();
+        continue;
+      }
+
+      in.beginArray();
+      for (int row = 1; in.hasNext(); row++) {
+        in.beginArray();
+        for (int col = 1; in.hasNext(); col++) {
+          ChessPiece piece = readPiece(in);
+          if (piece != null) {
+            board.addPiece(ChessPosition.of(row, col), piece);
+          }
+        }
+        in.endArray();
+      }
+      in.endArray();
+    }
+    in.endObject();
+
+    return board;
+  }
+
+  private ChessPiece readPiece(JsonReader in) throws IOException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+
+    ChessGame.TeamColor teamColor = null;
+    ChessPiece.PieceType type = null;
+
+    in.beginObject();
+    while (in.hasNext()) {
+      switch (in.nextName()) {
+        case "pieceColor" -> teamColor = ChessGame.TeamColor.valueOf(in.nextString());
+        case "type" -> type = ChessPiece.PieceType.valueOf(in.nextString());
+        default -> in.skipValue();
+      }
+    }
+    in.endObject();
+
+    if (teamColor == null || type == null) {
+      throw new JsonParseException("Chess piece is missing its color or type");
+    }
+    return ChessPiece.of(teamColor, type);
+  }
+}
@@ -1,8 +1,9 @@
 package chess;
 
+import chess.rules.LegalMoveGenerator;
+import chess.rules.MoveList;
+import chess.rules.PackedMove;
 import java.util.Collection;
-import java.util.HashSet;
-import java.util.Set;
 
 /**
  * For a class that can manage a chess game, making moves on a board
@@ -11,14 +12,42 @@ import java.util.Set;
  */
 public class ChessGame {
 
+  private static final int FIFTY_MOVE_LIMIT = 100;
+
   ChessBoard board = new ChessBoard();
   TeamColor teamTurn;
+  MoveHistory history = new MoveHistory();
+  int fullmoveNumber = 1;
+  int halfmoveClock;
+
+  private final transient LegalMoveGenerator moveGenerator = new LegalMoveGenerator();
+
+  private final transient RepetitionHistory repetitions = new RepetitionHistory();
+  private transient int moveCount;
+
+  private transient GameStatus status;
+  private transient long statusKey;
+  private transient int statusMoveCount;
 
   public ChessGame() {
     board.resetBoard();
     teamTurn = TeamColor.WHITE;
   }
 
+  /**
+   * Copies an existing game, including its move history, so the copy can be played on separately. A
+   * game isn't safe to use from more than one thread at once, but copies of it are independent.
+   *
+   * @param other The game being copied
+   */
+  public ChessGame(ChessGame other) {
+    board = new ChessBoard(other.board);
+    teamTurn = other.teamTurn;
+    history = new MoveHistory(other.history);
+    fullmoveNumber = other.fullmoveNumber;
+    halfmoveClock = other.halfmoveClock;
+  }
+
   /**
    * Gets the current chessboard
    *
@@ -29,12 +58,24 @@ public class ChessGame {
   }
 
   /**
-   * Sets this game's chessboard with a given board
+   * Sets this game's chessboard with a given board. The move history is cleared, since its moves
+   * led to the old board.
    *
    * @param board The new board to use
    */
   public void setBoard(ChessBoard board) {
     this.board = board;
+    history.clear();
+    halfmoveClock = 0;
+    repetitions.clear();
+    status = null;
+  }
+
+  /**
+   * @return The moves made in this game, including any that have been undone and can be redone
+   */
+  public MoveHistory getHistory() {
+    return history;
   }
 
   /**
@@ -53,6 +94,75 @@ public class ChessGame {
     teamTurn = team;
   }
 
+  /**
+   * @return The number of the current full move, starting at 1 and going up after each black move
+   */
+  public int getFullmoveNumber() {
+    return fullmoveNumber;
+  }
+
+  /**
+   * @return The number of moves made since the last capture or pawn move
+   */
+  public int getHalfmoveClock() {
+    return halfmoveClock;
+  }
+
+  /**
+   * Counts how many times the current position has come up in this game with the same team to move.
+   * Only positions since the last capture or pawn move are checked, since none before it can
+   * repeat.
+   *
+   * @return The number of times the position has occurred, counting the current one
+   */
+  public int getRepetitionCount() {
+    syncRepetitions();
+    return repetitions.countOfLast();
+  }
+
+  /**
+   * Creates a game from a position in Forsyth-Edwards Notation. The text is read in place, so a
+   * {@link StringBuilder} or a slice of a larger buffer can be passed without making a string.
+   * Castling rights and the en passant square are accepted but ignored, since this game has neither
+   * rule.
+   *
+   * @param fen A FEN record, with or without the halfmove clock and fullmove number
+   * @return A game in that position with an empty history
+   * @throws IllegalArgumentException if the text isn't valid FEN
+   */
+  public static ChessGame fromFen(CharSequence fen) {
+    return Fen.parseGame(fen);
+  }
+
+  /**
+   * Appends this game's position in Forsyth-Edwards Notation, so one builder can be reused for
+   * every position written
+   *
+   * @param out The builder to append to
+   * @return The same builder
+   */
+  public StringBuilder toFen(StringBuilder out) {
+    Fen.appendGame(this, out);
+    return out;
+  }
+
+  /**
+   * @return This game's position in Forsyth-Edwards Notation
+   */
+  public String toFen() {
+    return toFen(new StringBuilder(90)).toString();
+  }
+
+  /**
+   * Gets the Zobrist key of the current position, covering both the pieces on the board and whose
+   * turn it is. Two games in the same position with the same team to move have the same key.
+   *
+   * @return A 64-bit hash of the position
+   */
+  public long getZobristKey() {
+    return board.getZobristKey(teamTurn);
+  }
+
   /** Switches which team's turn it is after a move is made */
   public void switchTeamTurn() {
     if (getTeamTurn() == TeamColor.WHITE) {
@@ -70,46 +180,66 @@ public class ChessGame {
    */
   public Collection<ChessMove> validMoves(ChessPosition startPosition) {
     ChessPiece piece = board.getPiece(startPosition);
+    if (piece == null) {
+      return null;
+    }
 
-    TeamColor teamColor = piece.getTeamColor();
-    Collection<ChessMove> pieceMoves = piece.pieceMoves(board, startPosition);
-
-    Set<ChessMove> invalidMoves = new HashSet<>();
+    moveGenerator.setPosition(board, piece.getTeamColor());
+    return moveGenerator.validMoves(startPosition);
+  }
 
-    for (ChessMove move : pieceMoves) {
-      ChessBoard boardCopy = new ChessBoard(board);
-      ChessPosition endPosition = move.getEndPosition();
-      boardCopy.movePiece(startPosition, endPosition, null);
+  public boolean hasNoValidMoves(TeamColor teamColor) {
+    moveGenerator.setPosition(board, teamColor);
+    return !moveGenerator.hasValidMoves();
+  }
 
-      ChessGame simulatedGame = new ChessGame();
-      simulatedGame.setBoard(boardCopy);
+  /**
+   * Adds every valid move for the team whose turn it is to a move list, encoded with {@link
+   * PackedMove}. Reusing the list between calls keeps move enumeration free of allocation.
+   *
+   * @param moves The list to add the moves to
+   */
+  public void generateValidMoves(MoveList moves) {
+    moveGenerator.setPosition(board, teamTurn);
+    moveGenerator.generateMoves(moves);
+  }
 
-      if (simulatedGame.isInCheck(teamColor)) {
-        invalidMoves.add(move);
-      }
+  /**
+   * Works out whether the team whose turn it is is in check, checkmate or stalemate, or whether the
+   * game is drawn because neither team can checkmate, fifty moves passed without a capture or pawn
+   * move, or the position came up a third time. Check is found once, and the search for a legal
+   * move stops at the first one, so this costs no more than a single {@link #isInCheckmate} call.
+   * The result is remembered until the next move or change to the board.
+   *
+   * @return The status of the game for the team whose turn it is
+   */
+  public GameStatus status() {
+    long key = getZobristKey();
+    if (status == null || statusKey != key || statusMoveCount != moveCount) {
+      status = computeStatus();
+      statusKey = key;
+      statusMoveCount = moveCount;
     }
-
-    pieceMoves.removeAll(invalidMoves);
-
-    return pieceMoves;
+    return status;
   }
 
-  public boolean hasNoValidMoves(TeamColor teamColor) {
-    for (int row = 1; row <= 8; row++) {
-      for (int col = 1; col <= 8; col++) {
-        ChessPosition position = new ChessPosition(row, col);
-        ChessPiece piece = board.getPiece(position);
-
-        if (piece != null && piece.getTeamColor() == teamColor) {
-          Collection<ChessMove> validMoves = validMoves(position);
+  private GameStatus computeStatus() {
+    moveGenerator.setPosition(board, teamTurn);
+    boolean inCheck = moveGenerator.isInCheck();
 
-          if (!validMoves.isEmpty()) {
-            return false;
-          }
-        }
-      }
+    if (!moveGenerator.hasValidMoves()) {
+      return inCheck ? GameStatus.CHECKMATE : GameStatus.STALEMATE;
     }
-    return true;
+    if (board.hasInsufficientMaterial()) {
+      return GameStatus.INSUFFICIENT_MATERIAL;
+    }
+    if (halfmoveClock >= FIFTY_MOVE_LIMIT) {
+      return GameStatus.FIFTY_MOVE_RULE;
+    }
+    if (getRepetitionCount() >= 3) {
+      return GameStatus.THREEFOLD_REPETITION;
+    }
+    return inCheck ? GameStatus.CHECK : GameStatus.IN_PROGRESS;
   }
 
   /**
@@ -121,7 +251,6 @@ public class ChessGame {
   public void makeMove(ChessMove move) throws InvalidMoveException {
     ChessPosition startPosition = move.getStartPosition();
     ChessPosition endPosition = move.getEndPosition();
-    ChessPiece.PieceType promotionPiece = move.getPromotionPiece();
 
     ChessPiece piece = board.getPiece(startPosition);
     if (piece == null) {
@@ -136,26 +265,125 @@ public class ChessGame {
     }
 
     Collection<ChessMove> validMoves = validMoves(startPosition);
-    if (validMoves.contains(move)) {
-      board.movePiece(startPosition, endPosition, promotionPiece);
-      switchTeamTurn();
-    } else {
+    if (!validMoves.contains(move)) {
       throw new InvalidMoveException("Error: invalid move");
     }
+
+    int flags = board.isOccupiedAt(endPosition) ? PackedMove.CAPTURE_FLAG : 0;
+    int packedMove = PackedMove.of(move, flags);
+
+    syncRepetitions();
+    int undo = board.makeMove(packedMove);
+    history.record(packedMove, undo, halfmoveClock);
+    advanceTurn(undo);
   }
 
   /**
-   * Determines if the given team is in check. This occurs when the position of the given team's
-   * king is in the list of valid moves for the other team.
+   * Takes back the last move made in this game. The move stays in the history so it can be redone.
+   *
+   * @return True if a move was taken back, false if there was none to take back
+   */
+  public boolean undoMove() {
+    if (!history.canUndo()) {
+      return false;
+    }
+    syncRepetitions();
+    int entry = history.undo();
+    board.unmakeMove(MoveHistory.move(entry), MoveHistory.undoToken(entry));
+    retreatTurn(MoveHistory.halfmoveClock(entry));
+    return true;
+  }
+
+  /**
+   * Plays again the last move taken back with {@link #undoMove}
+   *
+   * @return True if a move was redone, false if there was none to redo
+   */
+  public boolean redoMove() {
+    if (!history.canRedo()) {
+      return false;
+    }
+    syncRepetitions();
+    advanceTurn(board.makeMove(MoveHistory.move(history.redo())));
+    return true;
+  }
+
+  /** Updates the turn, clocks and repetition history after a move with the given undo token. */
+  private void advanceTurn(int undo) {
+    boolean irreversible = ChessBoard.isCaptureOrPawnMove(undo);
+    halfmoveClock = irreversible ? 0 : halfmoveClock + 1;
+    if (teamTurn == TeamColor.BLACK) {
+      fullmoveNumber++;
+    }
+    switchTeamTurn();
+    moveCount++;
+
+    if (irreversible) {
+      repetitions.clear();
+    }
+    repetitions.push(getZobristKey());
+  }
+
+  /** Puts the turn and clocks back after a move is taken back. */
+  private void retreatTurn(int previousHalfmoveClock) {
+    boolean irreversible = halfmoveClock == 0;
+    halfmoveClock = previousHalfmoveClock;
+    switchTeamTurn();
+    if (teamTurn == TeamColor.BLACK) {
+      fullmoveNumber--;
+    }
+    moveCount++;
+
+    if (irreversible) {
+      repetitions.clear();
+    } else {
+      repetitions.pop();
+    }
+  }
+
+  /**
+   * Makes sure the repetition history ends with the current position. It's kept up to date move by
+   * move, but a game loaded from JSON, a taken back capture or a board changed by hand leaves it
+   * empty or stale, and then it's rebuilt by taking back the moves since the last capture or pawn
+   * move on a copy of the board.
+   */
+  private void syncRepetitions() {
+    long key = getZobristKey();
+    if (!repetitions.isEmpty() && repetitions.last() == key) {
+      return;
+    }
+
+    int plies = Math.min(halfmoveClock, history.getPosition());
+    long[] keys = new long[plies + 1];
+    keys[plies] = key;
+
+    ChessBoard scratch = new ChessBoard(board);
+    boolean blackToMove = teamTurn == TeamColor.BLACK;
+    for (int i = plies - 1; i >= 0; i--) {
+      int entry = history.getEntry(history.getPosition() - plies + i);
+      scratch.unmakeMove(MoveHistory.move(entry), MoveHistory.undoToken(entry));
+      blackToMove = !blackToMove;
+      keys[i] = scratch.getZobristKey(blackToMove ? TeamColor.BLACK : TeamColor.WHITE);
+    }
+
+    repetitions.clear();
+    for (long positionKey : keys) {
+      repetitions.push(positionKey);
+    }
+  }
+
+  /**
+   * Determines if the given team is in check. This occurs when the given team's king is attacked by
+   * one of the other team's pieces.
    *
    * @param teamColor Which team to check for check
    * @return True if the specified team is in check
    */
   public boolean isInCheck(TeamColor teamColor) {
-    ChessPosition kingPosition = board.getKingPosition(teamColor);
-    Set<ChessPosition> availablePositions = board.getAvailablePositions(teamColor);
+    int kingSquare = board.getKingSquare(teamColor);
+    TeamColor opponentColor = (teamColor == TeamColor.WHITE) ? TeamColor.BLACK : TeamColor.WHITE;
 
-    return availablePositions.contains(kingPosition);
+    return kingSquare >= 0 && board.isSquareAttacked(kingSquare, opponentColor);
   }
 
   /**
@@ -166,6 +394,9 @@ public class ChessGame {
    * @return True if the specified team is in checkmate
    */
   public boolean isInCheckmate(TeamColor teamColor) {
+    if (teamColor == teamTurn) {
+      return status() == GameStatus.CHECKMATE;
+    }
     return isInCheck(teamColor) && hasNoValidMoves(teamColor);
   }
 
@@ -177,6 +408,9 @@ public class ChessGame {
    * @return True if the specified team is in stalemate, otherwise false
    */
   public boolean isInStalemate(TeamColor teamColor) {
+    if (teamColor == teamTurn) {
+      return status() == GameStatus.STALEMATE;
+    }
     return !isInCheck(teamColor) && hasNoValidMoves(teamColor);
   }
 
@@ -1,8 +1,7 @@
 package chess;
 
-import chess.rules.*;
+import chess.rules.MovementRulesRegistry;
 import java.util.Collection;
-import java.util.Objects;
 
 /**
  * Represents a single chess piece
@@ -11,6 +10,16 @@ import java.util.Objects;
  */
 public class ChessPiece {
 
+  private static final ChessPiece[] PIECES = new ChessPiece[12];
+
+  static {
+    for (ChessGame.TeamColor teamColor : ChessGame.TeamColor.values()) {
+      for (PieceType type : PieceType.values()) {
+        PIECES[teamColor.ordinal() * 6 + type.ordinal()] = new ChessPiece(teamColor, type);
+      }
+    }
+  }
+
   private final ChessGame.TeamColor pieceColor;
   private final PieceType type;
 
@@ -24,6 +33,36 @@ public class ChessPiece {
     this.type = other.type;
   }
 
+  /**
+   * Gets the shared piece of a given team and type. Pieces never change once created, so the board
+   * and move generation use these twelve instances instead of allocating new ones.
+   *
+   * @param pieceColor Which team the piece belongs to
+   * @param type Which type of piece it is
+   * @return The shared piece of that team and type
+   */
+  public static ChessPiece of(ChessGame.TeamColor pieceColor, PieceType type) {
+    return PIECES[pieceColor.ordinal() * 6 + type.ordinal()];
+  }
+
+  /**
+   * Gets a shared piece by its index, the position of its bitboard on {@link ChessBoard}
+   *
+   * @param index The piece's index, from 0 to 11
+   * @return The shared piece with that index
+   */
+  static ChessPiece fromIndex(int index) {
+    return PIECES[index];
+  }
+
+  /**
+   * @return This piece's index, counting white pieces 0 to 5 and black pieces 6 to 11 in {@link
+   *     PieceType} order
+   */
+  int getIndex() {
+    return pieceColor.ordinal() * 6 + type.ordinal();
+  }
+
   /**
    * @return Which team this chess piece belongs to
    */
@@ -45,18 +84,7 @@ public class ChessPiece {
    * @return Collection of valid moves
    */
   public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition) {
-    MovementRules rules;
-
-    switch (type) {
-      case KING -> rules = new KingMovementRules();
-      case QUEEN -> rules = new QueenMovementRules();
-      case BISHOP -> rules = new BishopMovementRules();
-      case KNIGHT -> rules = new KnightMovementRules();
-      case ROOK -> rules = new RookMovementRules();
-      case PAWN -> rules = new PawnMovementRules();
-      default -> throw new IllegalArgumentException("Unexpected piece type: " + type);
-    }
-    return rules.pieceMoves(board, myPosition);
+    return MovementRulesRegistry.forType(type).pieceMoves(board, myPosition);
   }
 
   @Override
@@ -73,7 +101,7 @@ public class ChessPiece {
 
   @Override
   public int hashCode() {
-    return Objects.hash(pieceColor, type);
+    return getIndex();
   }
 
   @Override
@@ -96,11 +124,24 @@ public class ChessPiece {
 
   /** The various different chess piece options */
   public enum PieceType {
-    KING,
-    QUEEN,
-    BISHOP,
-    KNIGHT,
-    ROOK,
-    PAWN
+    KING(0),
+    QUEEN(900),
+    BISHOP(330),
+    KNIGHT(320),
+    ROOK(500),
+    PAWN(100);
+
+    private final int materialValue;
+
+    PieceType(int materialValue) {
+      this.materialValue = materialValue;
+    }
+
+    /**
+     * @return What the piece is worth in centipawns when counting material, zero for the king
+     */
+    public int getMaterialValue() {
+      return materialValue;
+    }
   }
 }
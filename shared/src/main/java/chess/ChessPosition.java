@@ -1,7 +1,5 @@
 package chess;
 
-import java.util.Objects;
-
 /**
  * Represents a single square position on a chess board
  *
@@ -9,6 +7,14 @@ import java.util.Objects;
  */
 public class ChessPosition {
 
+  private static final ChessPosition[] POSITIONS = new ChessPosition[64];
+
+  static {
+    for (int square = 0; square < 64; square++) {
+      POSITIONS[square] = new ChessPosition(square / 8 + 1, square % 8 + 1);
+    }
+  }
+
   private final int row;
   private final int col;
 
@@ -35,7 +41,32 @@ public class ChessPosition {
     int col = columnChar - 'a' + 1;
     int row = rowChar - '0';
 
-    return new ChessPosition(row, col);
+    return of(row, col);
+  }
+
+  /**
+   * Gets the shared position for a row and column. Positions on the board are cached, so this
+   * doesn't allocate for them; positions off the board are created fresh.
+   *
+   * @param row The row, 1 being the bottom row
+   * @param col The column, 1 being the left column
+   * @return The position at that row and column
+   */
+  public static ChessPosition of(int row, int col) {
+    if (row < 1 || row > 8 || col < 1 || col > 8) {
+      return new ChessPosition(row, col);
+    }
+    return POSITIONS[(row - 1) * 8 + (col - 1)];
+  }
+
+  /**
+   * Gets the position for a square index, counting a1 as 0, h1 as 7 and h8 as 63
+   *
+   * @param square The square index, from 0 to 63
+   * @return The shared position of that square
+   */
+  public static ChessPosition fromSquare(int square) {
+    return POSITIONS[square];
   }
 
   /**
@@ -52,6 +83,13 @@ public class ChessPosition {
     return col;
   }
 
+  /**
+   * @return the square index of this position, counting a1 as 0, h1 as 7 and h8 as 63
+   */
+  public int getSquare() {
+    return (row - 1) * 8 + (col - 1);
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -66,7 +104,7 @@ public class ChessPosition {
 
   @Override
   public int hashCode() {
-    return Objects.hash(row, col);
+    return 31 * row + col;
   }
 
   @Override
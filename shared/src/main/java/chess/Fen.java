@@ -0,0 +1,233 @@
+package chess;
+
+/**
+ * Reads and writes positions in Forsyth-Edwards Notation. A FEN record lists the pieces rank by
+ * rank from the eighth down, then the team to move, castling rights, the en passant square, the
+ * halfmove clock and the fullmove number, for example {@code
+ * rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b - - 0 1}.
+ *
+ * <p>The parser walks the text one character at a time, so it works on any {@link CharSequence}
+ * without splitting it or copying it into a string first. This game has no castling or en passant,
+ * so those two fields are checked for well-formedness and then ignored, and always written as
+ * {@code -}. The clock and move number may be left off, as many tools do.
+ */
+final class Fen {
+
+  private static final String PIECE_LETTERS = "KQBNRP";
+  private static final ChessPiece.PieceType[] PIECE_TYPES = ChessPiece.PieceType.values();
+
+  private final CharSequence text;
+  private int index;
+
+  private Fen(CharSequence text) {
+    this.text = text;
+  }
+
+  /**
+   * @param fen A full FEN record
+   * @return A game in the described position
+   * @throws IllegalArgumentException if the record isn't valid FEN
+   */
+  static ChessGame parseGame(CharSequence fen) {
+    Fen parser = new Fen(fen);
+    ChessBoard board = new ChessBoard();
+    parser.readPlacement(board);
+
+    parser.expectSpace();
+    ChessGame.TeamColor teamTurn = parser.readTeamTurn();
+
+    int halfmoveClock = 0;
+    int fullmoveNumber = 1;
+    if (parser.skipSpaces()) {
+      parser.readCastling();
+      parser.expectSpace();
+      parser.readEnPassant();
+      if (parser.skipSpaces()) {
+        halfmoveClock = parser.readNumber("halfmove clock");
+        parser.expectSpace();
+        fullmoveNumber = parser.readNumber("fullmove number");
+        if (fullmoveNumber < 1) {
+          throw parser.error("fullmove number must be at least 1");
+        }
+      }
+    }
+    parser.skipSpaces();
+    if (parser.index != parser.text.length()) {
+      throw parser.error("unexpected text after the position");
+    }
+
+    ChessGame game = new ChessGame();
+    game.setBoard(board);
+    game.setTeamTurn(teamTurn);
+    game.halfmoveClock = halfmoveClock;
+    game.fullmoveNumber = fullmoveNumber;
+    return game;
+  }
+
+  /**
+   * @param placement Just the piece placement field of a FEN record
+   * @return A board holding those pieces
+   * @throws IllegalArgumentException if the text isn't a valid placement field
+   */
+  static ChessBoard parseBoard(CharSequence placement) {
+    Fen parser = new Fen(placement);
+    ChessBoard board = new ChessBoard();
+    parser.readPlacement(board);
+    if (parser.index != parser.text.length()) {
+      throw parser.error("unexpected text after the piece placement");
+    }
+    return board;
+  }
+
+  /** Appends a game's full FEN record. */
+  static void appendGame(ChessGame game, StringBuilder out) {
+    appendBoard(game.getBoard(), out);
+    out.append(game.getTeamTurn() == ChessGame.TeamColor.WHITE ? " w" : " b");
+    out.append(" - - ").append(game.halfmoveClock).append(' ').append(game.fullmoveNumber);
+  }
+
+  /** Appends a board's piece placement field. */
+  static void appendBoard(ChessBoard board, StringBuilder out) {
+    for (int row = 8; row >= 1; row--) {
+      int emptySquares = 0;
+      for (int col = 1; col <= 8; col++) {
+        ChessPiece piece = board.getPiece(ChessPosition.of(row, col));
+        if (piece == null) {
+          emptySquares++;
+          continue;
+        }
+        if (emptySquares > 0) {
+          out.append((char) ('0' + emptySquares));
+          emptySquares = 0;
+        }
+        out.append(pieceLetter(piece));
+      }
+      if (emptySquares > 0) {
+        out.append((char) ('0' + emptySquares));
+      }
+      if (row > 1) {
+        out.append('/');
+      }
+    }
+  }
+
+  private void readPlacement(ChessBoard board) {
+    for (int row = 8; row >= 1; row--) {
+      int col = 1;
+      while (col <= 8) {
+        char c = next("piece placement");
+        if (c >= '1' && c <= '8') {
+          col += c - '0';
+        } else {
+          board.addPiece(ChessPosition.of(row, col), piece(c));
+          col++;
+        }
+      }
+      if (col != 9) {
+        throw error("rank " + row + " describes more than 8 squares");
+      }
+      if (row > 1 && next("piece placement") != '/') {
+        throw error("expected / after rank " + row);
+      }
+    }
+  }
+
+  private ChessGame.TeamColor readTeamTurn() {
+    return switch (next("team to move")) {
+      case 'w' -> ChessGame.TeamColor.WHITE;
+      case 'b' -> ChessGame.TeamColor.BLACK;
+      default -> throw error("team to move must be w or b");
+    };
+  }
+
+  private void readCastling() {
+    if (peek() == '-') {
+      index++;
+      return;
+    }
+    int start = index;
+    while (index < text.length() && "KQkq".indexOf(text.charAt(index)) >= 0) {
+      index++;
+    }
+    if (index == start) {
+      throw error("castling rights must be - or some of KQkq");
+    }
+  }
+
+  private void readEnPassant() {
+    char file = next("en passant square");
+    if (file == '-') {
+      return;
+    }
+    char rank = next("en passant square");
+    if (file < 'a' || file > 'h' || (rank != '3' && rank != '6')) {
+      throw error("en passant square must be - or a square on rank 3 or 6");
+    }
+  }
+
+  private int readNumber(String field) {
+    int start = index;
+    int value = 0;
+    while (index < text.length() && text.charAt(index) >= '0' && text.charAt(index) <= '9') {
+      value = value * 10 + (text.charAt(index++) - '0');
+      if (value > 100_000) {
+        throw error(field + " is too large");
+      }
+    }
+    if (index == start) {
+      throw error(field + " must be a number");
+    }
+    return value;
+  }
+
+  private void expectSpace() {
+    if (!skipSpaces()) {
+      throw error("expected a space");
+    }
+  }
+
+  /** Skips spaces, returning true if there were any and more text follows them. */
+  private boolean skipSpaces() {
+    int start = index;
+    while (index < text.length() && text.charAt(index) == ' ') {
+      index++;
+    }
+    return index > start && index < text.length();
+  }
+
+  private char peek() {
+    if (index >= text.length()) {
+      throw error("the position ends too early");
+    }
+    return text.charAt(index);
+  }
+
+  private char next(String field) {
+    if (index >= text.length()) {
+      throw error(field + " ends too early");
+    }
+    return text.charAt(index++);
+  }
+
+  private ChessPiece piece(char letter) {
+    int type = PIECE_LETTERS.indexOf(Character.toUpperCase(letter));
+    if (type < 0) {
+      throw error("'" + letter + "' isn't a piece");
+    }
+    ChessGame.TeamColor teamColor =
+        Character.isUpperCase(letter) ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+    return ChessPiece.of(teamColor, PIECE_TYPES[type]);
+  }
+
+  private static char pieceLetter(ChessPiece piece) {
+    char letter = PIECE_LETTERS.charAt(piece.getPieceType().ordinal());
+    return piece.getTeamColor() == ChessGame.TeamColor.WHITE
+        ? letter
+        : Character.toLowerCase(letter);
+  }
+
+  private IllegalArgumentException error(String problem) {
+    return new IllegalArgumentException(
+        String.format("Invalid FEN at character %d: %s in \"%s\"", index, problem, text));
+  }
+}
@@ -0,0 +1,19 @@
+package chess;
+
+/** Where a game stands for the team whose turn it is, as found by {@link ChessGame#status()} */
+public enum GameStatus {
+  IN_PROGRESS,
+  CHECK,
+  CHECKMATE,
+  STALEMATE,
+  INSUFFICIENT_MATERIAL,
+  FIFTY_MOVE_RULE,
+  THREEFOLD_REPETITION;
+
+  /**
+   * @return True if the game can't continue from this position
+   */
+  public boolean isGameOver() {
+    return this != IN_PROGRESS && this != CHECK;
+  }
+}
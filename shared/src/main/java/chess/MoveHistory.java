@@ -0,0 +1,142 @@
+package chess;
+
+import chess.rules.PackedMove;
+import com.google.gson.annotations.JsonAdapter;
+import java.util.Arrays;
+
+/**
+ * The moves made in a game, one int per ply. Each entry holds the move encoded with {@link
+ * PackedMove} in its low 16 bits, the undo token from {@link ChessBoard#makeMove(int)} in the next
+ * 8, and the halfmove clock from before the move in the top 8, which is everything needed to take
+ * the move back or play it again.
+ *
+ * <p>Undoing a move keeps it in the log so it can be redone. Making a different move after undoing
+ * drops the moves that could have been redone, the same as in an editor.
+ */
+@JsonAdapter(MoveHistoryAdapter.class)
+public class MoveHistory {
+
+  private static final int UNDO_SHIFT = 16;
+  private static final int CLOCK_SHIFT = 24;
+  private static final int MAX_CLOCK = 0xFF;
+
+  private int[] plies = new int[64];
+  private int size;
+  private int position;
+
+  public MoveHistory() {}
+
+  /**
+   * Copies an existing history
+   *
+   * @param other The history being copied
+   */
+  public MoveHistory(MoveHistory other) {
+    plies = other.plies.clone();
+    size = other.size;
+    position = other.position;
+  }
+
+  /**
+   * @return The number of moves made to reach the current position
+   */
+  public int getPosition() {
+    return position;
+  }
+
+  /**
+   * @return The number of moves in the log, including ones that have been undone
+   */
+  public int size() {
+    return size;
+  }
+
+  public boolean canUndo() {
+    return position > 0;
+  }
+
+  public boolean canRedo() {
+    return position < size;
+  }
+
+  /**
+   * @param ply The index of a move in the log, starting at 0 for the first move of the game
+   * @return That move as a {@link ChessMove}
+   */
+  public ChessMove getMove(int ply) {
+    return PackedMove.toChessMove(getPackedMove(ply));
+  }
+
+  /**
+   * @param ply The index of a move in the log, starting at 0 for the first move of the game
+   * @return That move encoded with {@link PackedMove}
+   */
+  public int getPackedMove(int ply) {
+    if (ply < 0 || ply >= size) {
+      throw new IndexOutOfBoundsException("No move at ply " + ply + " of " + size);
+    }
+    return plies[ply] & 0xFFFF;
+  }
+
+  /**
+   * Records a move made at the current position, dropping any moves that could be redone. A clock
+   * past 255 is stored as 255, which only matters for games played on well past the fifty-move
+   * rule.
+   */
+  void record(int move, int undo, int halfmoveClock) {
+    if (position == plies.length) {
+      plies = Arrays.copyOf(plies, plies.length * 2);
+    }
+    int clock = Math.min(halfmoveClock, MAX_CLOCK);
+    plies[position++] = move | (undo << UNDO_SHIFT) | (clock << CLOCK_SHIFT);
+    size = position;
+  }
+
+  /** Steps back one move and returns its entry. Only call when {@link #canUndo} is true. */
+  int undo() {
+    return plies[--position];
+  }
+
+  /** Steps forward one move and returns its entry. Only call when {@link #canRedo} is true. */
+  int redo() {
+    return plies[position++];
+  }
+
+  void clear() {
+    size = 0;
+    position = 0;
+  }
+
+  /** Returns the raw entry at a ply, for rebuilding state from the log. */
+  int getEntry(int ply) {
+    return plies[ply];
+  }
+
+  static int move(int entry) {
+    return entry & 0xFFFF;
+  }
+
+  static int undoToken(int entry) {
+    return (entry >>> UNDO_SHIFT) & 0xFF;
+  }
+
+  static int halfmoveClock(int entry) {
+    return entry >>> CLOCK_SHIFT;
+  }
+
+  /** Gives the adapter the raw entries, without the unused capacity. */
+  int[] entries() {
+    return Arrays.copyOf(plies, size);
+  }
+
+  /** Replaces the log with entries read back by the adapter. */
+  void load(int[] entries, int position) {
+    if (position < 0 || position > entries.length) {
+      throw new IllegalArgumentException(
+          "History position " + position + " is outside its " + entries.length + " moves");
+    }
+    plies = Arrays.copyOf(entries, Math.max(entries.length, 64));
+    size = entries.length;
+    this.position = position;
+  }
+}
@@ -0,0 +1,73 @@
+package chess;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Serializes a {@link MoveHistory} as its packed entries and how many of them have been played, so
+ * a saved game keeps its moves in a few bytes each and can still be undone after it's loaded.
+ */
+class MoveHistoryAdapter extends TypeAdapter<MoveHistory> {
+
+  @Override
+  public void write(JsonWriter out, MoveHistory history) throws IOException {
+    if (history == null) {
+      out.nullValue();
+      return;
+    }
+
+    out.beginObject();
+    out.name("plies");
+    out.beginArray();
+    for (int entry : history.entries()) {
+      out.value(entry);
+    }
+    out.endArray();
+    out.name("position").value(history.getPosition());
+    out.endObject();
+  }
+
+  @Override
+  public MoveHistory read(JsonReader in) throws IOException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+
+    int[] entries = new int[0];
+    int count = 0;
+    Integer position = null;
+
+    in.beginObject();
+    while (in.hasNext()) {
+      switch (in.nextName()) {
+        case "plies" -> {
+          in.beginArray();
+          while (in.hasNext()) {
+            if (count == entries.length) {
+              entries = Arrays.copyOf(entries, Math.max(16, count * 2));
+            }
+            entries[count++] = in.nextInt();
+          }
+          in.endArray();
+        }
+        case "position" -> position = in.nextInt();
+        default -> in.skipValue();
+      }
+    }
+    in.endObject();
+
+    MoveHistory history = new MoveHistory();
+    try {
+      history.load(Arrays.copyOf(entries, count), (position != null) ? position : count);
+    } catch (IllegalArgumentException ex) {
+      throw new JsonParseException(ex.getMessage(), ex);
+    }
+    return history;
+  }
+}
@@ -0,0 +1,178 @@
+package chess;
+
+/**
+ * Material and placement values for every piece on every square, in centipawns, for the middlegame
+ * and the endgame. A piece's value is its {@link ChessPiece.PieceType#getMaterialValue} plus a
+ * bonus or penalty for its square: knights and bishops are worth more in the center, pawns more as
+ * they advance, and the king is safest tucked in a corner until the endgame, when it belongs in the
+ * center.
+ *
+ * <p>Values are from white's point of view, so black pieces count negatively and a board can keep
+ * one running sum for both teams. The tables are written as white sees the board, eighth row first,
+ * and mirrored for black when the class loads.
+ *
+ * <p>Each piece also counts toward the game phase: 1 for a knight or bishop, 2 for a rook and 4 for
+ * a queen, which adds up to {@link #MAX_PHASE} with every piece on the board. A tapered evaluation
+ * blends the two scores by how much of that is left.
+ */
+public final class PieceSquareTables {
+
+  /** The game phase with all the starting pieces on the board */
+  public static final int MAX_PHASE = 24;
+
+  private static final int[] PHASE_WEIGHTS = {0, 4, 1, 1, 2, 0};
+
+  private static final int[] KING_MIDGAME = {
+    -30, -40, -40, -50, -50, -40, -40, -30,
+    -30, -40, -40, -50, -50, -40, -40, -30,
+    -30, -40, -40, -50, -50, -40, -40, -30,
+    -30, -40, -40, -50, -50, -40, -40, -30,
+    -20, -30, -30, -40, -40, -30, -30, -20,
+    -10, -20, -20, -20, -20, -20, -20, -10,
+    20, 20, 0, 0, 0, 0, 20, 20,
+    20, 30, 10, 0, 0, 10, 30, 20
+  };
+
+  private static final int[] KING_ENDGAME = {
+    -50, -40, -30, -20, -20, -30, -40, -50,
+    -30, -20, -10, 0, 0, -10, -20, -30,
+    -30, -10, 20, 30, 30, 20, -10, -30,
+    -30, -10, 30, 40, 40, 30, -10, -30,
+    -30, -10, 30, 40, 40, 30, -10, -30,
+    -30, -10, 20, 30, 30, 20, -10, -30,
+    -30, -30, 0, 0, 0, 0, -30, -30,
+    -50, -30, -30, -30, -30, -30, -30, -50
+  };
+
+  private static final int[] QUEEN = {
+    -20, -10, -10, -5, -5, -10, -10, -20,
+    -10, 0, 0, 0, 0, 0, 0, -10,
+    -10, 0, 5, 5, 5, 5, 0, -10,
+    -5, 0, 5, 5, 5, 5, 0, -5,
+    0, 0, 5, 5, 5, 5, 0, -5,
+    -10, 5, 5, 5, 5, 5, 0, -10,
+    -10, 0, 5, 0, 0, 0, 0, -10,
+    -20, -10, -10, -5, -5, -10, -10, -20
+  };
+
+  private static final int[] BISHOP = {
+    -20, -10, -10, -10, -10, -10, -10, -20,
+    -10, 0, 0, 0, 0, 0, 0, -10,
+    -10, 0, 5, 10, 10, 5, 0, -10,
+    -10, 5, 5, 10, 10, 5, 5, -10,
+    -10, 0, 10, 10, 10, 10, 0, -10,
+    -10, 10, 10, 10, 10, 10, 10, -10,
+    -10, 5, 0, 0, 0, 0, 5, -10,
+    -20, -10, -10, -10, -10, -10, -10, -20
+  };
+
+  private static final int[] KNIGHT = {
+    -50, -40, -30, -30, -30, -30, -40, -50,
+    -40, -20, 0, 0, 0, 0, -20, -40,
+    -30, 0, 10, 15, 15, 10, 0, -30,
+    -30, 5, 15, 20, 20, 15, 5, -30,
+    -30, 0, 15, 20, 20, 15, 0, -30,
+    -30, 5, 10, 15, 15, 10, 5, -30,
+    -40, -20, 0, 5, 5, 0, -20, -40,
+    -50, -40, -30, -30, -30, -30, -40, -50
+  };
+
+  private static final int[] ROOK = {
+    0, 0, 0, 0, 0, 0, 0, 0,
+    5, 10, 10, 10, 10, 10, 10, 5,
+    -5, 0, 0, 0, 0, 0, 0, -5,
+    -5, 0, 0, 0, 0, 0, 0, -5,
+    -5, 0, 0, 0, 0, 0, 0, -5,
+    -5, 0, 0, 0, 0, 0, 0, -5,
+    -5, 0, 0, 0, 0, 0, 0, -5,
+    0, 0, 0, 5, 5, 0, 0, 0
+  };
+
+  private static final int[] PAWN_MIDGAME = {
+    0, 0, 0, 0, 0, 0, 0, 0,
+    50, 50, 50, 50, 50, 50, 50, 50,
+    10, 10, 20, 30, 30, 20, 10, 10,
+    5, 5, 10, 25, 25, 10, 5, 5,
+    0, 0, 0, 20, 20, 0, 0, 0,
+    5, -5, -10, 0, 0, -10, -5, 5,
+    5, 10, 10, -20, -20, 10, 10, 5,
+    0, 0, 0, 0, 0, 0, 0, 0
+  };
+
+  private static final int[] PAWN_ENDGAME = {
+    0, 0, 0, 0, 0, 0, 0, 0,
+    80, 80, 80, 80, 80, 80, 80, 80,
+    50, 50, 50, 50, 50, 50, 50, 50,
+    30, 30, 30, 30, 30, 30, 30, 30,
+    20, 20, 20, 20, 20, 20, 20, 20,
+    10, 10, 10, 10, 10, 10, 10, 10,
+    10, 10, 10, 10, 10, 10, 10, 10,
+    0, 0, 0, 0, 0, 0, 0, 0
+  };
+
+  /** Indexed by piece type ordinal, the same order as {@link ChessPiece.PieceType} */
+  private static final int[][] MIDGAME_TABLES = {
+    KING_MIDGAME, QUEEN, BISHOP, KNIGHT, ROOK, PAWN_MIDGAME
+  };
+
+  private static final int[][] ENDGAME_TABLES = {
+    KING_ENDGAME, QUEEN, BISHOP, KNIGHT, ROOK, PAWN_ENDGAME
+  };
+
+  private static final int[] MIDGAME = new int[12 * 64];
+  private static final int[] ENDGAME = new int[12 * 64];
+
+  static {
+    ChessPiece.PieceType[] types = ChessPiece.PieceType.values();
+    for (int pieceIndex = 0; pieceIndex < 12; pieceIndex++) {
+      boolean white = pieceIndex < types.length;
+      ChessPiece.PieceType type = types[pieceIndex % types.length];
+      int sign = white ? 1 : -1;
+
+      for (int square = 0; square < 64; square++) {
+        // The tables list the eighth row first, so white flips the row and black reads it as is
+        int tableSquare = white ? square ^ 56 : square;
+        MIDGAME[pieceIndex * 64 + square] =
+            sign * (type.getMaterialValue() + MIDGAME_TABLES[type.ordinal()][tableSquare]);
+        ENDGAME[pieceIndex * 64 + square] =
+            sign * (type.getMaterialValue() + ENDGAME_TABLES[type.ordinal()][tableSquare]);
+      }
+    }
+  }
+
+  private PieceSquareTables() {}
+
+  /**
+   * @param piece A piece
+   * @param square The square it stands on
+   * @return Its middlegame value, negative for a black piece
+   */
+  public static int midgame(ChessPiece piece, int square) {
+    return midgame(piece.getIndex(), square);
+  }
+
+  /**
+   * @param piece A piece
+   * @param square The square it stands on
+   * @return Its endgame value, negative for a black piece
+   */
+  public static int endgame(ChessPiece piece, int square) {
+    return endgame(piece.getIndex(), square);
+  }
+
+  /**
+   * @param type A type of piece
+   * @return How much one piece of that type counts toward the game phase
+   */
+  public static int phase(ChessPiece.PieceType type) {
+    return PHASE_WEIGHTS[type.ordinal()];
+  }
+
+  static int midgame(int pieceIndex, int square) {
+    return MIDGAME[pieceIndex * 64 + square];
+  }
+
+  static int endgame(int pieceIndex, int square) {
+    return ENDGAME[pieceIndex * 64 + square];
+  }
+}
@@ -0,0 +1,64 @@
+package chess;
+
+/**
+ * The Zobrist keys of the positions reached since the last capture or pawn move, oldest first. No
+ * position before such a move can ever come up again, so this is all a repetition check needs to
+ * look at. The keys live in a fixed ring; the fifty-move rule ends a game long before it fills, and
+ * if a game runs on regardless the oldest keys are overwritten.
+ */
+final class RepetitionHistory {
+
+  private static final int CAPACITY = 128;
+  private static final int MASK = CAPACITY - 1;
+
+  private final long[] keys = new long[CAPACITY];
+  private int end;
+  private int size;
+
+  void clear() {
+    size = 0;
+  }
+
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  void push(long key) {
+    keys[end] = key;
+    end = (end + 1) & MASK;
+    if (size < CAPACITY) {
+      size++;
+    }
+  }
+
+  /** Drops the newest key. Only call when the history isn't empty. */
+  void pop() {
+    end = (end - 1) & MASK;
+    size--;
+  }
+
+  /** Returns the newest key. Only call when the history isn't empty. */
+  long last() {
+    return keys[(end - 1) & MASK];
+  }
+
+  /**
+   * Counts how often the newest position has occurred. Only positions with the same team to move
+   * can match, so every other key is skipped.
+   *
+   * @return The number of times the newest position appears, counting itself
+   */
+  int countOfLast() {
+    if (size == 0) {
+      return 0;
+    }
+    long key = last();
+    int count = 1;
+    for (int back = 2; back < size; back += 2) {
+      if (keys[(end - 1 - back) & MASK] == key) {
+        count++;
+      }
+    }
+    return count;
+  }
+}
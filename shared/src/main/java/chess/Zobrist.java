@@ -0,0 +1,42 @@
+package chess;
+
+/**
+ * Random keys for Zobrist hashing. A position's key is the XOR of one key per piece on its square,
+ * plus {@link #BLACK_TO_MOVE} when it's black's turn, so adding, removing or moving a piece only
+ * has to XOR the keys of the squares involved.
+ *
+ * <p>The keys come from a fixed seed so a position hashes to the same key in every run, which keeps
+ * stored keys meaningful after a restart.
+ */
+final class Zobrist {
+
+  static final long BLACK_TO_MOVE;
+  private static final long[] PIECE_KEYS = new long[12 * 64];
+
+  static {
+    long state = 0x6A09E667F3BCC908L;
+    for (int i = 0; i < PIECE_KEYS.length; i++) {
+      state += 0x9E3779B97F4A7C15L;
+      PIECE_KEYS[i] = mix(state);
+    }
+    state += 0x9E3779B97F4A7C15L;
+    BLACK_TO_MOVE = mix(state);
+  }
+
+  private Zobrist() {}
+
+  /**
+   * @param pieceIndex The piece's index, as used for the board's piece bitboards
+   * @param square The square the piece stands on
+   * @return The key for that piece standing on that square
+   */
+  static long pieceKey(int pieceIndex, int square) {
+    return PIECE_KEYS[pieceIndex * 64 + square];
+  }
+
+  private static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+}
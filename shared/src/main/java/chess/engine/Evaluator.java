@@ -0,0 +1,16 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+
+/** Scores a quiet position for the {@link SearchEngine} at the end of each line it searches. */
+public interface Evaluator {
+
+  /**
+   * @param board The position to score
+   * @param teamToMove The team whose turn it is
+   * @return The score in centipawns from the point of view of the team to move, so higher is better
+   *     for that team
+   */
+  int evaluate(ChessBoard board, ChessGame.TeamColor teamToMove);
+}
@@ -0,0 +1,14 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+
+/** Scores a position by the material each team has left, which the board keeps up to date. */
+public class MaterialEvaluator implements Evaluator {
+
+  @Override
+  public int evaluate(ChessBoard board, ChessGame.TeamColor teamToMove) {
+    int balance = board.getMaterialBalance();
+    return (teamToMove == ChessGame.TeamColor.WHITE) ? balance : -balance;
+  }
+}
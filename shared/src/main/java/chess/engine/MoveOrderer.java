@@ -0,0 +1,270 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.rules.MoveList;
+import chess.rules.PackedMove;
+
+/**
+ * Puts the moves at each ply of a search in the order most likely to cut the search off early. The
+ * move generator lists moves piece by piece in a fixed direction order; this scores every move and
+ * hands them out best first:
+ *
+ * <ol>
+ *   <li>the hash move, the best move a transposition table or the last iteration found here
+ *   <li>captures and queen promotions, most valuable victim first and, among those, least valuable
+ *       attacker first (MVV-LVA)
+ *   <li>the two killer moves, the quiet moves that last caused a cutoff at the same ply
+ *   <li>every other move, by a history table of how often its start and end squares caused cutoffs
+ * </ol>
+ *
+ * <p>Moves are handed out by selection, picking the best remaining move each time, since a cutoff
+ * usually comes after a few moves and sorting the rest would be wasted. Scores live in one array
+ * per ply, so ordering allocates nothing.
+ *
+ * <p>Each cutoff is counted by where the cutting move came from and whether it was the first move
+ * tried, which shows how well each part of the ordering is doing.
+ */
+public class MoveOrderer {
+
+  /** Where a move's place in the order came from */
+  public enum Source {
+    HASH,
+    CAPTURE,
+    KILLER,
+    QUIET
+  }
+
+  private static final int HASH_SCORE = 1 << 30;
+  private static final int CAPTURE_SCORE = 1 << 29;
+  private static final int KILLER_SCORE = 1 << 28;
+
+  /** History scores are halved once one reaches this, keeping them below the killer scores */
+  private static final int HISTORY_LIMIT = 1 << 20;
+
+  private static final Source[] SOURCES = Source.values();
+
+  private final int[][] scores = new int[SearchEngine.MAX_PLY][256];
+  private final int[][] killers = new int[SearchEngine.MAX_PLY][2];
+  private final int[][] history = new int[2][64 * 64];
+
+  private final long[] cutoffs = new long[SOURCES.length];
+  private final long[] firstMoveCutoffs = new long[SOURCES.length];
+
+  /** Forgets the killer moves and halves the history scores before a new search. */
+  public void newSearch() {
+    for (int[] plyKillers : killers) {
+      plyKillers[0] = 0;
+      plyKillers[1] = 0;
+    }
+    ageHistory();
+  }
+
+  /**
+   * Scores every move in a list so {@link #pickMove} can hand them out best first
+   *
+   * @param board The position the moves are made from
+   * @param teamColor The team making the moves
+   * @param moves The moves to order
+   * @param ply How far from the root the position is
+   * @param hashMove The move to try first, or 0 for none
+   */
+  public void scoreMoves(
+      ChessBoard board, ChessGame.TeamColor teamColor, MoveList moves, int ply, int hashMove) {
+    if (scores[ply].length < moves.size()) {
+      scores[ply] = new int[moves.size()];
+    }
+    int[] plyScores = scores[ply];
+    int[] plyKillers = killers[ply];
+    int[] teamHistory = history[teamColor.ordinal()];
+
+    for (int i = 0; i < moves.size(); i++) {
+      int move = moves.get(i);
+      if (move == hashMove) {
+        plyScores[i] = HASH_SCORE;
+      } else if (isTactical(move)) {
+        plyScores[i] = CAPTURE_SCORE + mvvLva(board, move);
+      } else if (move == plyKillers[0]) {
+        plyScores[i] = KILLER_SCORE + 1;
+      } else if (move == plyKillers[1]) {
+        plyScores[i] = KILLER_SCORE;
+      } else {
+        plyScores[i] = teamHistory[butterflyIndex(move)];
+      }
+    }
+  }
+
+  /**
+   * Swaps the best of the moves not yet handed out into place and returns it
+   *
+   * @param moves The moves scored with {@link #scoreMoves}
+   * @param ply The ply they were scored for
+   * @param index How many moves have been handed out already
+   * @return The best remaining move
+   */
+  public int pickMove(MoveList moves, int ply, int index) {
+    int[] plyScores = scores[ply];
+    int best = index;
+    for (int i = index + 1; i < moves.size(); i++) {
+      if (plyScores[i] > plyScores[best]) {
+        best = i;
+      }
+    }
+
+    int move = moves.get(best);
+    if (best != index) {
+      moves.set(best, moves.get(index));
+      moves.set(index, move);
+      int score = plyScores[best];
+      plyScores[best] = plyScores[index];
+      plyScores[index] = score;
+    }
+    return move;
+  }
+
+  /**
+   * Learns from a move that caused a cutoff. A quiet move becomes the ply's first killer and gains
+   * history in proportion to the square of the remaining depth, so cutoffs near the root count for
+   * more.
+   *
+   * @param teamColor The team that made the move
+   * @param move The move
+   * @param ply The ply the move was made at
+   * @param index Where the move was in the order, 0 for first
+   * @param depth How many plies deep the move's position was searched
+   */
+  public void recordCutoff(ChessGame.TeamColor teamColor, int move, int ply, int index, int depth) {
+    Source source = sourceOf(scores[ply][index]);
+    cutoffs[source.ordinal()]++;
+    if (index == 0) {
+      firstMoveCutoffs[source.ordinal()]++;
+    }
+
+    if (isTactical(move)) {
+      return;
+    }
+    int[] plyKillers = killers[ply];
+    if (plyKillers[0] != move) {
+      plyKillers[1] = plyKillers[0];
+      plyKillers[0] = move;
+    }
+
+    int[] teamHistory = history[teamColor.ordinal()];
+    int butterfly = butterflyIndex(move);
+    teamHistory[butterfly] += depth * depth;
+    if (teamHistory[butterfly] >= HISTORY_LIMIT) {
+      ageHistory();
+    }
+  }
+
+  /**
+   * @return How many cutoffs have been recorded
+   */
+  public long getCutoffs() {
+    long total = 0;
+    for (long count : cutoffs) {
+      total += count;
+    }
+    return total;
+  }
+
+  /**
+   * @return How many cutoffs came from moves of the given source
+   */
+  public long getCutoffs(Source source) {
+    return cutoffs[source.ordinal()];
+  }
+
+  /**
+   * @return How many cutoffs came from moves of the given source that were tried first
+   */
+  public long getFirstMoveCutoffs(Source source) {
+    return firstMoveCutoffs[source.ordinal()];
+  }
+
+  /**
+   * @return The fraction of all cutoffs that came from the first move tried, or 0 before any
+   */
+  public double getFirstMoveCutoffRate() {
+    long total = getCutoffs();
+    if (total == 0) {
+      return 0;
+    }
+    long first = 0;
+    for (long count : firstMoveCutoffs) {
+      first += count;
+    }
+    return (double) first / total;
+  }
+
+  /**
+   * @return The fraction of cutoffs from the given source that came from the first move tried, or 0
+   *     before any
+   */
+  public double getFirstMoveCutoffRate(Source source) {
+    long total = cutoffs[source.ordinal()];
+    return (total == 0) ? 0 : (double) firstMoveCutoffs[source.ordinal()] / total;
+  }
+
+  public void resetStatistics() {
+    for (int i = 0; i < SOURCES.length; i++) {
+      cutoffs[i] = 0;
+      firstMoveCutoffs[i] = 0;
+    }
+  }
+
+  private void ageHistory() {
+    for (int[] teamHistory : history) {
+      for (int i = 0; i < teamHistory.length; i++) {
+        teamHistory[i] >>= 1;
+      }
+    }
+  }
+
+  private static Source sourceOf(int score) {
+    if (score >= HASH_SCORE) {
+      return Source.HASH;
+    }
+    if (score >= CAPTURE_SCORE) {
+      return Source.CAPTURE;
+    }
+    if (score >= KILLER_SCORE) {
+      return Source.KILLER;
+    }
+    return Source.QUIET;
+  }
+
+  /**
+   * Captures and queen promotions change the material, so they are ordered ahead of quiet moves.
+   */
+  static boolean isTactical(int move) {
+    return PackedMove.isCapture(move)
+        || PackedMove.promotionPiece(move) == ChessPiece.PieceType.QUEEN;
+  }
+
+  /**
+   * Ten times the value gained, so the victim decides the order, less a tenth of the attacker's
+   * value to break ties in favor of the cheaper attacker
+   */
+  private static int mvvLva(ChessBoard board, int move) {
+    int gain = 0;
+    if (PackedMove.isCapture(move)) {
+      gain += pieceValue(board, PackedMove.endSquare(move));
+    }
+    ChessPiece.PieceType promotion = PackedMove.promotionPiece(move);
+    if (promotion != null) {
+      gain += promotion.getMaterialValue() - ChessPiece.PieceType.PAWN.getMaterialValue();
+    }
+    return gain * 10 - pieceValue(board, PackedMove.startSquare(move)) / 10;
+  }
+
+  private static int pieceValue(ChessBoard board, int square) {
+    return board.getPiece(ChessPosition.fromSquare(square)).getPieceType().getMaterialValue();
+  }
+
+  private static int butterflyIndex(int move) {
+    return PackedMove.startSquare(move) * 64 + PackedMove.endSquare(move);
+  }
+}
@@ -0,0 +1,176 @@
+package chess.engine;
+
+import chess.ChessGame;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Searches one game on several threads with Lazy SMP. Every thread runs its own {@link
+ * SearchEngine} on the same root, and the only thing they share is a {@link TranspositionTable}.
+ * Each thread fills the table with results the others pick up as cutoffs and hash moves, and half
+ * the helpers start one ply deeper than the main search, so the threads spread over different parts
+ * of the tree instead of repeating the same work.
+ *
+ * <p>The main search runs on the calling thread under the given limits and reports its iterations.
+ * Helpers run until it finishes and are then stopped and waited for, so the engines are idle again
+ * before {@link #search} returns. The answer is the main search's, unless a helper finished a
+ * deeper iteration before the main search was stopped.
+ */
+public class ParallelSearch implements AutoCloseable {
+
+  private final SearchEngine mainEngine;
+  private final List<SearchEngine> helpers;
+  private final TranspositionTable table;
+  private final ExecutorService pool;
+
+  /**
+   * Searches with piece-square evaluation and a table of the default size
+   *
+   * @param threads How many threads to search with, including the calling thread
+   */
+  public ParallelSearch(int threads) {
+    this(
+        threads,
+        new TranspositionTable(SearchEngine.DEFAULT_TABLE_MEGABYTES),
+        PieceSquareEvaluator::new);
+  }
+
+  /**
+   * @param threads How many threads to search with, including the calling thread
+   * @param table The table every thread shares
+   * @param evaluators Makes the evaluator for each thread, so evaluators that keep state don't need
+   *     to be thread safe
+   */
+  public ParallelSearch(int threads, TranspositionTable table, Supplier<Evaluator> evaluators) {
+    if (threads < 1) {
+      throw new IllegalArgumentException("Need at least one search thread, not " + threads);
+    }
+    this.table = table;
+    this.mainEngine = new SearchEngine(evaluators.get(), table);
+    this.helpers = new ArrayList<>(threads - 1);
+    for (int i = 1; i < threads; i++) {
+      helpers.add(new SearchEngine(evaluators.get(), table));
+    }
+    this.pool =
+        helpers.isEmpty()
+            ? null
+            : Executors.newFixedThreadPool(helpers.size(), ParallelSearch::newHelperThread);
+  }
+
+  /**
+   * Searches for the best move for the team whose turn it is
+   *
+   * @param game The game to search, which is left unchanged
+   * @param limits When to stop searching
+   * @return The result of the deepest iteration finished, with the nodes of every thread counted
+   */
+  public SearchResult search(ChessGame game, SearchLimits limits) {
+    return search(game, limits, null);
+  }
+
+  /**
+   * Searches for the best move for the team whose turn it is, reporting each iteration the main
+   * search finishes
+   *
+   * @param game The game to search, which is left unchanged
+   * @param limits When to stop searching
+   * @param onIteration Called with the result of every main search iteration, or null
+   * @return The result of the deepest iteration finished, with the nodes of every thread counted
+   */
+  public SearchResult search(
+      ChessGame game, SearchLimits limits, Consumer<SearchResult> onIteration) {
+    table.newSearch();
+    mainEngine.clearStop();
+
+    SearchLimits helperLimits =
+        new SearchLimits(limits.maxDepth(), SearchLimits.UNLIMITED, limits.maxTimeMillis());
+    List<Future<SearchResult>> helperResults = new ArrayList<>(helpers.size());
+    for (int i = 0; i < helpers.size(); i++) {
+      SearchEngine helper = helpers.get(i);
+      ChessGame helperGame = new ChessGame(game);
+      int firstDepth = 1 + (i % 2);
+      helper.clearStop();
+      helperResults.add(
+          pool.submit(() -> helper.search(helperGame, helperLimits, null, firstDepth)));
+    }
+
+    SearchResult result;
+    try {
+      result = mainEngine.search(game, limits, onIteration, 1);
+    } finally {
+      for (SearchEngine helper : helpers) {
+        helper.stop();
+      }
+    }
+
+    long nodes = mainEngine.getNodes();
+    for (int i = 0; i < helpers.size(); i++) {
+      SearchResult helperResult = await(helperResults.get(i));
+      if (helperResult.depth() > result.depth() && helperResult.bestMove() != null) {
+        result = helperResult;
+      }
+      nodes += helpers.get(i).getNodes();
+    }
+
+    return new SearchResult(
+        result.bestMove(),
+        result.score(),
+        result.depth(),
+        nodes,
+        result.elapsedMillis(),
+        result.principalVariation());
+  }
+
+  /**
+   * Asks a running search to stop as soon as it can. The search answers with its deepest finished
+   * iteration.
+   */
+  public void stop() {
+    mainEngine.stop();
+  }
+
+  /**
+   * @return How many threads this searches with, including the calling thread
+   */
+  public int getThreads() {
+    return helpers.size() + 1;
+  }
+
+  public TranspositionTable getTranspositionTable() {
+    return table;
+  }
+
+  @Override
+  public void close() {
+    if (pool != null) {
+      for (SearchEngine helper : helpers) {
+        helper.stop();
+      }
+      pool.shutdown();
+    }
+  }
+
+  /** Helper threads are daemons, so a search that is never closed doesn't keep the JVM alive. */
+  private static Thread newHelperThread(Runnable task) {
+    Thread thread = new Thread(task, "search-helper");
+    thread.setDaemon(true);
+    return thread;
+  }
+
+  private static SearchResult await(Future<SearchResult> future) {
+    try {
+      return future.get();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted waiting for a search thread", ex);
+    } catch (ExecutionException ex) {
+      throw new IllegalStateException("A search thread failed", ex.getCause());
+    }
+  }
+}
@@ -0,0 +1,155 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import java.util.Arrays;
+
+/**
+ * A small fixed-size cache of {@link PawnStructure} scores, keyed by the board's pawn-only Zobrist
+ * key. Pawns move far less often than pieces, so most positions a search evaluates share their pawn
+ * structure with one evaluated moments before, and the cache answers them without looking at the
+ * pawns again.
+ *
+ * <p>Each slot holds a pawn key with the middlegame and endgame scores of its structure and the
+ * bitboard of its passed pawns. Slots come in buckets of two, picked by the low bits of the key. A
+ * new structure goes in the bucket's first slot and the one it displaces moves to the second, so
+ * the two structures most recently scored in a bucket both stay until a third comes along. {@link
+ * #probe} hands back the slot, so reading a cached structure allocates nothing.
+ *
+ * <p>The cache isn't thread safe; give each search thread an evaluator with its own.
+ */
+public final class PawnHashTable {
+
+  /** How much memory a cache made with the default size uses */
+  public static final int DEFAULT_KILOBYTES = 1024;
+
+  private static final int BYTES_PER_ENTRY = 2 * Long.BYTES + 2 * Integer.BYTES;
+  private static final int BYTES_PER_KILOBYTE = 1024;
+
+  private final long[] keys;
+  private final long[] passedPawns;
+  private final int[] midgameScores;
+  private final int[] endgameScores;
+  private final int mask;
+
+  private long probes;
+  private long hits;
+
+  public PawnHashTable() {
+    this(DEFAULT_KILOBYTES);
+  }
+
+  /**
+   * @param kilobytes How much memory the cache may use; it takes the largest power of two number of
+   *     slots that fits
+   */
+  public PawnHashTable(int kilobytes) {
+    if (kilobytes < 1) {
+      throw new IllegalArgumentException("Cache size must be at least 1 KB, not " + kilobytes);
+    }
+    int entries =
+        Math.max(2, Integer.highestOneBit(kilobytes * BYTES_PER_KILOBYTE / BYTES_PER_ENTRY));
+    this.keys = new long[entries];
+    this.passedPawns = new long[entries];
+    this.midgameScores = new int[entries];
+    this.endgameScores = new int[entries];
+    this.mask = entries - 2;
+    clear();
+  }
+
+  /**
+   * Finds the slot holding the board's pawn structure, scoring the structure and storing it first
+   * if the cache doesn't have it
+   *
+   * @param board The position whose pawns to look up
+   * @return The slot to read with {@link #midgame}, {@link #endgame} and {@link #passedPawns}
+   */
+  public int probe(ChessBoard board) {
+    probes++;
+    long key = board.getPawnKey();
+    int slot = (int) key & mask;
+    if (keys[slot] == key) {
+      hits++;
+      return slot;
+    }
+    if (keys[slot + 1] == key) {
+      hits++;
+      return slot + 1;
+    }
+
+    // The bucket's newer structure moves to its second slot, pushing out the older one
+    keys[slot + 1] = keys[slot];
+    passedPawns[slot + 1] = passedPawns[slot];
+    midgameScores[slot + 1] = midgameScores[slot];
+    endgameScores[slot + 1] = endgameScores[slot];
+
+    long whitePawns = board.getPieceBitboard(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN);
+    long blackPawns = board.getPieceBitboard(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN);
+    long passed = PawnStructure.passedPawns(whitePawns, blackPawns);
+
+    keys[slot] = key;
+    passedPawns[slot] = passed;
+    midgameScores[slot] = PawnStructure.midgame(whitePawns, blackPawns, passed);
+    endgameScores[slot] = PawnStructure.endgame(whitePawns, blackPawns, passed);
+    return slot;
+  }
+
+  /**
+   * @param slot A slot {@link #probe} returned
+   * @return The middlegame score of the slot's pawn structure, positive when white's is better
+   */
+  public int midgame(int slot) {
+    return midgameScores[slot];
+  }
+
+  /**
+   * @param slot A slot {@link #probe} returned
+   * @return The endgame score of the slot's pawn structure, positive when white's is better
+   */
+  public int endgame(int slot) {
+    return endgameScores[slot];
+  }
+
+  /**
+   * @param slot A slot {@link #probe} returned
+   * @return The passed pawns of both teams in the slot's pawn structure
+   */
+  public long passedPawns(int slot) {
+    return passedPawns[slot];
+  }
+
+  /** Empties the cache and resets its statistics. */
+  public void clear() {
+    // A pawn key is never all ones in practice, unlike 0, which is the key of a board with no pawns
+    Arrays.fill(keys, -1L);
+    resetStatistics();
+  }
+
+  public void resetStatistics() {
+    probes = 0;
+    hits = 0;
+  }
+
+  /**
+   * @return How many pawn structures the cache can hold
+   */
+  public int getCapacity() {
+    return keys.length;
+  }
+
+  public long getProbes() {
+    return probes;
+  }
+
+  public long getHits() {
+    return hits;
+  }
+
+  /**
+   * @return The fraction of probes answered from the cache, or 0 before the first probe
+   */
+  public double getHitRate() {
+    return (probes == 0) ? 0 : (double) hits / probes;
+  }
+}
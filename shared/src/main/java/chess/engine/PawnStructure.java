@@ -0,0 +1,121 @@
+package chess.engine;
+
+/**
+ * Scores how each team's pawns stand relative to each other, from the two pawn bitboards alone:
+ *
+ * <ul>
+ *   <li>a doubled pawn, behind another of its team's pawns on the same column, can't defend it and
+ *       blocks it
+ *   <li>an isolated pawn has no pawns of its team on the columns beside it to defend it
+ *   <li>a passed pawn has no enemy pawns ahead of it on its column or the columns beside it, so
+ *       only pieces can stop it, and it is worth more the closer it is to promoting
+ * </ul>
+ *
+ * <p>Scores are from white's point of view, with a middlegame and an endgame value like {@link
+ * chess.PieceSquareTables}, since passed pawns matter far more once the pieces have come off.
+ */
+final class PawnStructure {
+
+  private static final int DOUBLED_MIDGAME = -10;
+  private static final int DOUBLED_ENDGAME = -20;
+  private static final int ISOLATED_MIDGAME = -10;
+  private static final int ISOLATED_ENDGAME = -15;
+
+  /** Indexed by how many rows the pawn has advanced from its team's back row */
+  private static final int[] PASSED_MIDGAME = {0, 0, 5, 10, 20, 35, 60, 0};
+
+  private static final int[] PASSED_ENDGAME = {0, 10, 15, 25, 45, 70, 110, 0};
+
+  private static final long FIRST_COLUMN = 0x0101010101010101L;
+
+  private static final long[] COLUMNS = new long[8];
+  private static final long[] NEIGHBOR_COLUMNS = new long[8];
+
+  /** The squares an enemy pawn must be off for a pawn to be passed, indexed by team and square */
+  private static final long[][] PASSED_SPANS = new long[2][64];
+
+  static {
+    for (int col = 0; col < 8; col++) {
+      COLUMNS[col] = FIRST_COLUMN << col;
+    }
+    for (int col = 0; col < 8; col++) {
+      NEIGHBOR_COLUMNS[col] =
+          ((col > 0) ? COLUMNS[col - 1] : 0) | ((col < 7) ? COLUMNS[col + 1] : 0);
+    }
+
+    for (int square = 0; square < 64; square++) {
+      int row = square >>> 3;
+      long span = COLUMNS[square & 7] | NEIGHBOR_COLUMNS[square & 7];
+      // Shifting by a whole number of rows keeps only the rows ahead of the pawn
+      long whiteAhead = (row < 7) ? -1L << ((row + 1) * 8) : 0;
+      long blackAhead = (row > 0) ? -1L >>> ((8 - row) * 8) : 0;
+      PASSED_SPANS[0][square] = span & whiteAhead;
+      PASSED_SPANS[1][square] = span & blackAhead;
+    }
+  }
+
+  private PawnStructure() {}
+
+  /**
+   * @param whitePawns White's pawn bitboard
+   * @param blackPawns Black's pawn bitboard
+   * @return Every pawn of either team that no enemy pawn can stop
+   */
+  static long passedPawns(long whitePawns, long blackPawns) {
+    return passed(whitePawns, blackPawns, 0) | passed(blackPawns, whitePawns, 1);
+  }
+
+  /**
+   * @param whitePawns White's pawn bitboard
+   * @param blackPawns Black's pawn bitboard
+   * @param passedPawns The pawns {@link #passedPawns} finds
+   * @return The middlegame score of the pawn structure, positive when white's is better
+   */
+  static int midgame(long whitePawns, long blackPawns, long passedPawns) {
+    return teamScore(whitePawns, passedPawns, 0, DOUBLED_MIDGAME, ISOLATED_MIDGAME, PASSED_MIDGAME)
+        - teamScore(blackPawns, passedPawns, 1, DOUBLED_MIDGAME, ISOLATED_MIDGAME, PASSED_MIDGAME);
+  }
+
+  /**
+   * @param whitePawns White's pawn bitboard
+   * @param blackPawns Black's pawn bitboard
+   * @param passedPawns The pawns {@link #passedPawns} finds
+   * @return The endgame score of the pawn structure, positive when white's is better
+   */
+  static int endgame(long whitePawns, long blackPawns, long passedPawns) {
+    return teamScore(whitePawns, passedPawns, 0, DOUBLED_ENDGAME, ISOLATED_ENDGAME, PASSED_ENDGAME)
+        - teamScore(blackPawns, passedPawns, 1, DOUBLED_ENDGAME, ISOLATED_ENDGAME, PASSED_ENDGAME);
+  }
+
+  private static long passed(long pawns, long enemyPawns, int team) {
+    long passed = 0;
+    for (long remaining = pawns; remaining != 0; remaining &= remaining - 1) {
+      int square = Long.numberOfTrailingZeros(remaining);
+      if ((enemyPawns & PASSED_SPANS[team][square]) == 0) {
+        passed |= 1L << square;
+      }
+    }
+    return passed;
+  }
+
+  private static int teamScore(
+      long pawns, long passedPawns, int team, int doubled, int isolated, int[] passedBonus) {
+    int score = 0;
+    for (int col = 0; col < 8; col++) {
+      int count = Long.bitCount(pawns & COLUMNS[col]);
+      if (count == 0) {
+        continue;
+      }
+      score += (count - 1) * doubled;
+      if ((pawns & NEIGHBOR_COLUMNS[col]) == 0) {
+        score += count * isolated;
+      }
+    }
+
+    for (long passed = pawns & passedPawns; passed != 0; passed &= passed - 1) {
+      int row = Long.numberOfTrailingZeros(passed) >>> 3;
+      score += passedBonus[(team == 0) ? row : 7 - row];
+    }
+    return score;
+  }
+}
@@ -0,0 +1,108 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.PieceSquareTables;
+
+/**
+ * Scores a position by material and where each piece stands, using {@link PieceSquareTables}, and
+ * by its {@link PawnStructure}. The middlegame and endgame scores are blended by the game phase, so
+ * the score slides from one to the other as pieces come off rather than jumping.
+ *
+ * <p>The board keeps both table scores and the phase up to date as pieces move, and a {@link
+ * PawnHashTable} remembers the pawn structures already scored, so evaluating is usually a few reads
+ * and a multiply. The cached passed pawns also earn an endgame bonus when nothing stands on the
+ * square in front of them, which depends on the pieces and so is worked out on every call. With
+ * assertions enabled every evaluation is also checked against {@link #evaluateFromScratch}, which
+ * adds the tables up square by square and scores the pawns without the cache.
+ */
+public class PieceSquareEvaluator implements Evaluator {
+
+  private static final int FREE_PASSER_ENDGAME = 15;
+
+  private final PawnHashTable pawnTable;
+
+  /** Evaluates with a pawn cache of the default size */
+  public PieceSquareEvaluator() {
+    this(new PawnHashTable());
+  }
+
+  /**
+   * @param pawnTable The cache of pawn structure scores, used by no other evaluator
+   */
+  public PieceSquareEvaluator(PawnHashTable pawnTable) {
+    this.pawnTable = pawnTable;
+  }
+
+  @Override
+  public int evaluate(ChessBoard board, ChessGame.TeamColor teamToMove) {
+    int slot = pawnTable.probe(board);
+    int midgame = board.getMidgameBalance() + pawnTable.midgame(slot);
+    int endgame =
+        board.getEndgameBalance()
+            + pawnTable.endgame(slot)
+            + freePassers(board, pawnTable.passedPawns(slot));
+    int score = taper(midgame, endgame, board.getGamePhase());
+    assert score == fromScratch(board)
+        : "Incremental evaluation " + score + " differs from recomputed " + fromScratch(board);
+    return (teamToMove == ChessGame.TeamColor.WHITE) ? score : -score;
+  }
+
+  /**
+   * Evaluates a position by visiting every square, without the scores the board keeps
+   *
+   * @param board The position to score
+   * @param teamToMove The team whose turn it is
+   * @return The same score {@link #evaluate} gives
+   */
+  public static int evaluateFromScratch(ChessBoard board, ChessGame.TeamColor teamToMove) {
+    int score = fromScratch(board);
+    return (teamToMove == ChessGame.TeamColor.WHITE) ? score : -score;
+  }
+
+  public PawnHashTable getPawnHashTable() {
+    return pawnTable;
+  }
+
+  private static int fromScratch(ChessBoard board) {
+    int midgame = 0;
+    int endgame = 0;
+    int phase = 0;
+
+    for (int square = 0; square < 64; square++) {
+      ChessPiece piece = board.getPiece(ChessPosition.fromSquare(square));
+      if (piece != null) {
+        midgame += PieceSquareTables.midgame(piece, square);
+        endgame += PieceSquareTables.endgame(piece, square);
+        phase += PieceSquareTables.phase(piece.getPieceType());
+      }
+    }
+
+    long whitePawns = board.getPieceBitboard(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN);
+    long blackPawns = board.getPieceBitboard(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN);
+    long passed = PawnStructure.passedPawns(whitePawns, blackPawns);
+    midgame += PawnStructure.midgame(whitePawns, blackPawns, passed);
+    endgame += PawnStructure.endgame(whitePawns, blackPawns, passed) + freePassers(board, passed);
+    return taper(midgame, endgame, phase);
+  }
+
+  /** Passed pawns never stand on the last row, so the square in front is always on the board. */
+  private static int freePassers(ChessBoard board, long passedPawns) {
+    long empty = ~board.getOccupiedBitboard();
+    long white =
+        passedPawns & board.getPieceBitboard(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN);
+    long black =
+        passedPawns & board.getPieceBitboard(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN);
+    return (Long.bitCount((white << 8) & empty) - Long.bitCount((black >>> 8) & empty))
+        * FREE_PASSER_ENDGAME;
+  }
+
+  /** Promotions can push the phase past its starting total, which still counts as a middlegame. */
+  private static int taper(int midgame, int endgame, int phase) {
+    int midgameWeight = Math.min(phase, PieceSquareTables.MAX_PHASE);
+    return (midgame * midgameWeight + endgame * (PieceSquareTables.MAX_PHASE - midgameWeight))
+        / PieceSquareTables.MAX_PHASE;
+  }
+}
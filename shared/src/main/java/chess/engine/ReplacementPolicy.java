@@ -0,0 +1,25 @@
+package chess.engine;
+
+/**
+ * How a {@link TranspositionTable} chooses which entry to overwrite when a bucket holding a new
+ * position is full. Every policy overwrites an entry for the same position first.
+ */
+public enum ReplacementPolicy {
+  /** The newest entry always wins, in the one slot of the bucket the position maps to */
+  ALWAYS_REPLACE,
+  /**
+   * The shallowest entry in the bucket is overwritten, but only by an entry searched at least as
+   * deep or once it is left over from an earlier search
+   */
+  DEPTH_PREFERRED,
+  /**
+   * The first slot of a bucket keeps the deepest entry and the second takes whatever the first
+   * turns away, so deep results survive while recent ones still get stored
+   */
+  TWO_TIER,
+  /**
+   * The entry with the lowest depth after subtracting how many searches ago it was written is
+   * overwritten, so old deep entries give way over time; the new entry is always stored
+   */
+  AGED
+}
@@ -0,0 +1,563 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.rules.LegalMoveGenerator;
+import chess.rules.MoveList;
+import chess.rules.PackedMove;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Finds the best move in a game with a negamax alpha-beta search. The search deepens one ply at a
+ * time, and each iteration tries the line the last one preferred first, so most of the tree is cut
+ * off early and the search always has the answer of its deepest finished iteration ready when a
+ * limit is reached.
+ *
+ * <p>The search works with make and unmake on its own copy of the game's board, so the game is left
+ * untouched. Move lists and the principal variation table are kept from one search to the next, and
+ * moves stay encoded with {@link PackedMove} until the result is built, so a search allocates
+ * almost nothing once the engine has been used.
+ *
+ * <p>Every searched position's score and best move go into a {@link TranspositionTable}, so a
+ * position reached again by another order of moves, or in the next iteration or search, can reuse
+ * the score when it was searched deep enough and otherwise tries the stored move first. The rest of
+ * the moves follow in the order a {@link MoveOrderer} gives them. At the end of each line a
+ * quiescence search plays out the captures still on the board before the position is evaluated.
+ *
+ * <p>Positions that repeat one earlier in the game or the search, positions where neither team can
+ * checkmate, and positions past the fifty-move rule score as draws.
+ *
+ * <p>An engine searches one game at a time. {@link #stop} is the only method that may be called
+ * from another thread while a search runs.
+ */
+public class SearchEngine {
+
+  /** The deepest ply the search keeps state for */
+  public static final int MAX_PLY = 128;
+
+  /** The score for checkmating on the move; mating later scores one less per ply */
+  public static final int MATE_SCORE = 30000;
+
+  /** Scores at least this far from zero are forced checkmates */
+  public static final int MATE_THRESHOLD = MATE_SCORE - MAX_PLY;
+
+  private static final int INFINITY = 32000;
+  private static final int FIFTY_MOVE_LIMIT = 100;
+
+  /** How many nodes pass between looks at the clock and the stop flag */
+  private static final int CHECK_INTERVAL_MASK = 1023;
+
+  /** The table a search makes by default, in megabytes */
+  public static final int DEFAULT_TABLE_MEGABYTES = 16;
+
+  private final Evaluator evaluator;
+  private final TranspositionTable table;
+  private final MoveOrderer orderer = new MoveOrderer();
+  private final LegalMoveGenerator generator = new LegalMoveGenerator();
+  private final MoveList[] moveLists = new MoveList[MAX_PLY];
+  private final int[][] pvTable = new int[MAX_PLY][MAX_PLY];
+  private final int[] pvLength = new int[MAX_PLY];
+  private final int[] halfmoveClocks = new int[MAX_PLY];
+  private final int[] pvUndos = new int[MAX_PLY];
+
+  private int[] previousPv = new int[MAX_PLY];
+  private int previousPvLength;
+  private boolean followingPv;
+
+  /** Keys of the positions since the last capture or pawn move, the root at {@link #rootIndex} */
+  private long[] positionKeys = new long[2 * MAX_PLY];
+
+  private int rootIndex;
+
+  private volatile boolean stopRequested;
+  private boolean aborted;
+  private ChessBoard board;
+  private long nodes;
+  private long maxNodes;
+  private long deadline;
+
+  public SearchEngine() {
+    this(new PieceSquareEvaluator());
+  }
+
+  /**
+   * @param evaluator Scores the positions at the end of each searched line
+   */
+  public SearchEngine(Evaluator evaluator) {
+    this(evaluator, new TranspositionTable(DEFAULT_TABLE_MEGABYTES));
+  }
+
+  /**
+   * @param evaluator Scores the positions at the end of each searched line
+   * @param table Remembers searched positions, kept from one search to the next
+   */
+  public SearchEngine(Evaluator evaluator, TranspositionTable table) {
+    this.evaluator = evaluator;
+    this.table = table;
+    for (int ply = 0; ply < MAX_PLY; ply++) {
+      moveLists[ply] = new MoveList(64);
+    }
+  }
+
+  /**
+   * Searches for the best move for the team whose turn it is
+   *
+   * @param game The game to search, which is left unchanged
+   * @param limits When to stop searching
+   * @return The result of the deepest iteration the search finished
+   */
+  public SearchResult search(ChessGame game, SearchLimits limits) {
+    return search(game, limits, null);
+  }
+
+  /**
+   * Searches for the best move for the team whose turn it is, reporting each finished iteration
+   *
+   * @param game The game to search, which is left unchanged
+   * @param limits When to stop searching
+   * @param onIteration Called with the result of every iteration as it finishes, or null
+   * @return The result of the deepest iteration the search finished
+   */
+  public SearchResult search(
+      ChessGame game, SearchLimits limits, Consumer<SearchResult> onIteration) {
+    clearStop();
+    table.newSearch();
+    return search(game, limits, onIteration, 1);
+  }
+
+  /**
+   * Runs a search without starting a new table generation or clearing a stop request, for helpers
+   * that search alongside others on a shared table
+   *
+   * @param firstDepth The depth of the first iteration
+   */
+  SearchResult search(
+      ChessGame game, SearchLimits limits, Consumer<SearchResult> onIteration, int firstDepth) {
+    long startTime = System.nanoTime();
+    aborted = false;
+    nodes = 0;
+    maxNodes = limits.maxNodes();
+    deadline =
+        (limits.maxTimeMillis() == SearchLimits.UNLIMITED)
+            ? Long.MAX_VALUE
+            : startTime + limits.maxTimeMillis() * 1_000_000;
+    previousPvLength = 0;
+    orderer.newSearch();
+
+    board = new ChessBoard(game.getBoard());
+    ChessGame.TeamColor teamToMove = game.getTeamTurn();
+    loadPositionKeys(game);
+    halfmoveClocks[0] = game.getHalfmoveClock();
+
+    SearchResult result = null;
+    for (int depth = Math.min(firstDepth, limits.maxDepth()); depth <= limits.maxDepth(); depth++) {
+      followingPv = true;
+      int score = search(depth, 0, -INFINITY, INFINITY, teamToMove);
+
+      if (aborted) {
+        break;
+      }
+      extendPvFromTable(depth, teamToMove);
+      result = buildResult(score, depth, startTime);
+      System.arraycopy(pvTable[0], 0, previousPv, 0, pvLength[0]);
+      previousPvLength = pvLength[0];
+
+      if (onIteration != null) {
+        onIteration.accept(result);
+      }
+      if (pvLength[0] == 0 || Math.abs(score) >= MATE_THRESHOLD || isOutOfTime()) {
+        break;
+      }
+    }
+
+    if (result == null) {
+      result = buildInterruptedResult(teamToMove, startTime);
+    }
+    board = null;
+    return result;
+  }
+
+  /**
+   * Asks a running search to stop as soon as it can. The search answers with its deepest finished
+   * iteration. Does nothing if no search is running.
+   */
+  public void stop() {
+    stopRequested = true;
+  }
+
+  /**
+   * @return The move ordering this engine searches with, and its cutoff statistics
+   */
+  public MoveOrderer getMoveOrderer() {
+    return orderer;
+  }
+
+  void clearStop() {
+    stopRequested = false;
+  }
+
+  /**
+   * @return How many positions the last search visited, including an unfinished last iteration
+   */
+  long getNodes() {
+    return nodes;
+  }
+
+  /**
+   * @return The table this engine remembers searched positions in
+   */
+  public TranspositionTable getTranspositionTable() {
+    return table;
+  }
+
+  private int search(int depth, int ply, int alpha, int beta, ChessGame.TeamColor teamToMove) {
+    pvLength[ply] = 0;
+    if (countNode()) {
+      return 0;
+    }
+    if (ply > 0 && (isRepetition(ply) || board.hasInsufficientMaterial())) {
+      return 0;
+    }
+    if (depth == 0) {
+      followingPv = false;
+      return quiesce(ply, alpha, beta, teamToMove);
+    }
+
+    long key = positionKeys[rootIndex + ply];
+    int hashMove = 0;
+    long entry = table.probe(key);
+    if (entry != TranspositionTable.MISS) {
+      hashMove = TranspositionTable.move(entry);
+      if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+        int score = scoreFromTable(TranspositionTable.score(entry), ply);
+        int bound = TranspositionTable.bound(entry);
+        if (bound == TranspositionTable.EXACT
+            || (bound == TranspositionTable.LOWER_BOUND && score >= beta)
+            || (bound == TranspositionTable.UPPER_BOUND && score <= alpha)) {
+          return score;
+        }
+      }
+    }
+
+    MoveList moves = moveLists[ply];
+    moves.clear();
+    generator.setPosition(board, teamToMove);
+    generator.generateMoves(moves);
+
+    if (moves.isEmpty()) {
+      return generator.isInCheck() ? -MATE_SCORE + ply : 0;
+    }
+    if (ply > 0 && halfmoveClocks[ply] >= FIFTY_MOVE_LIMIT) {
+      return 0;
+    }
+    if (ply == MAX_PLY - 1) {
+      followingPv = false;
+      return evaluator.evaluate(board, teamToMove);
+    }
+
+    if (followingPv) {
+      followingPv = ply < previousPvLength && contains(moves, previousPv[ply]);
+      if (followingPv) {
+        hashMove = previousPv[ply];
+      }
+    }
+    orderer.scoreMoves(board, teamToMove, moves, ply, hashMove);
+
+    int originalAlpha = alpha;
+    int bestMove = 0;
+    ChessGame.TeamColor opponent = opposite(teamToMove);
+    for (int i = 0; i < moves.size(); i++) {
+      int move = orderer.pickMove(moves, ply, i);
+      int undo = board.makeMove(move);
+      halfmoveClocks[ply + 1] = ChessBoard.isCaptureOrPawnMove(undo) ? 0 : halfmoveClocks[ply] + 1;
+      positionKeys[rootIndex + ply + 1] = board.getZobristKey(opponent);
+
+      int score = -search(depth - 1, ply + 1, -beta, -alpha, opponent);
+
+      board.unmakeMove(move, undo);
+      followingPv = false;
+      if (aborted) {
+        return 0;
+      }
+
+      if (score > alpha) {
+        alpha = score;
+        bestMove = move;
+        updatePv(ply, move);
+        if (alpha >= beta) {
+          orderer.recordCutoff(teamToMove, move, ply, i, depth);
+          break;
+        }
+      }
+    }
+
+    int bound;
+    if (alpha >= beta) {
+      bound = TranspositionTable.LOWER_BOUND;
+    } else if (alpha > originalAlpha) {
+      bound = TranspositionTable.EXACT;
+    } else {
+      bound = TranspositionTable.UPPER_BOUND;
+    }
+    table.store(key, bestMove, scoreToTable(alpha, ply), depth, bound);
+    return alpha;
+  }
+
+  /**
+   * Mate scores count plies from the root, but the table is shared by every path to a position, so
+   * they are stored counting from the position itself.
+   */
+  private static int scoreToTable(int score, int ply) {
+    if (score >= MATE_THRESHOLD) {
+      return score + ply;
+    }
+    if (score <= -MATE_THRESHOLD) {
+      return score - ply;
+    }
+    return score;
+  }
+
+  private static int scoreFromTable(int score, int ply) {
+    if (score >= MATE_THRESHOLD) {
+      return score - ply;
+    }
+    if (score <= -MATE_THRESHOLD) {
+      return score + ply;
+    }
+    return score;
+  }
+
+  /**
+   * Searches only captures and queen promotions from a position at the end of the main search, so
+   * it is scored after the exchanges under way have played out instead of halfway through one. The
+   * team to move can stand pat on the static evaluation rather than capture, except in check, when
+   * every move is searched. Captures that lose material by {@link StaticExchange} are skipped.
+   */
+  private int quiesce(int ply, int alpha, int beta, ChessGame.TeamColor teamToMove) {
+    pvLength[ply] = 0;
+    MoveList moves = moveLists[ply];
+    moves.clear();
+    generator.setPosition(board, teamToMove);
+    generator.generateMoves(moves);
+    boolean inCheck = generator.isInCheck();
+
+    if (moves.isEmpty()) {
+      return inCheck ? -MATE_SCORE + ply : 0;
+    }
+    if (halfmoveClocks[ply] >= FIFTY_MOVE_LIMIT) {
+      return 0;
+    }
+    if (ply == MAX_PLY - 1) {
+      return evaluator.evaluate(board, teamToMove);
+    }
+
+    if (!inCheck) {
+      int standPat = evaluator.evaluate(board, teamToMove);
+      if (standPat >= beta) {
+        return standPat;
+      }
+      alpha = Math.max(alpha, standPat);
+
+      int kept = 0;
+      for (int i = 0; i < moves.size(); i++) {
+        int move = moves.get(i);
+        if (MoveOrderer.isTactical(move) && StaticExchange.isAtLeast(board, move, 0)) {
+          moves.set(kept++, move);
+        }
+      }
+      moves.truncate(kept);
+    }
+
+    orderer.scoreMoves(board, teamToMove, moves, ply, 0);
+    ChessGame.TeamColor opponent = opposite(teamToMove);
+    for (int i = 0; i < moves.size(); i++) {
+      int move = orderer.pickMove(moves, ply, i);
+      int undo = board.makeMove(move);
+      halfmoveClocks[ply + 1] = ChessBoard.isCaptureOrPawnMove(undo) ? 0 : halfmoveClocks[ply] + 1;
+
+      int score = countNode() ? 0 : -quiesce(ply + 1, -beta, -alpha, opponent);
+
+      board.unmakeMove(move, undo);
+      if (aborted) {
+        return 0;
+      }
+
+      if (score > alpha) {
+        alpha = score;
+        updatePv(ply, move);
+        if (alpha >= beta) {
+          break;
+        }
+      }
+    }
+    return alpha;
+  }
+
+  /**
+   * Counts a node and, every so often or once the node limit is reached, checks whether the search
+   * has to stop
+   *
+   * @return True if the search has been stopped
+   */
+  private boolean countNode() {
+    if (++nodes >= maxNodes || (nodes & CHECK_INTERVAL_MASK) == 0) {
+      checkLimits();
+    }
+    return aborted;
+  }
+
+  /** Makes the principal variation at a ply the move followed by the line found below it. */
+  private void updatePv(int ply, int move) {
+    int[] line = pvTable[ply];
+    line[0] = move;
+    if (ply + 1 < MAX_PLY) {
+      System.arraycopy(pvTable[ply + 1], 0, line, 1, pvLength[ply + 1]);
+      pvLength[ply] = pvLength[ply + 1] + 1;
+    } else {
+      pvLength[ply] = 1;
+    }
+  }
+
+  private static boolean contains(MoveList moves, int move) {
+    for (int i = 0; i < moves.size(); i++) {
+      if (moves.get(i) == move) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * A position can only repeat one reached an even number of plies earlier, since the same team has
+   * to be on the move, and none from before the last capture or pawn move.
+   */
+  private boolean isRepetition(int ply) {
+    int index = rootIndex + ply;
+    long key = positionKeys[index];
+    int oldest = Math.max(0, index - halfmoveClocks[ply]);
+
+    for (int i = index - 2; i >= oldest; i -= 2) {
+      if (positionKeys[i] == key) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Walks a copy of the game back over the moves since the last capture or pawn move, so
+   * repetitions of positions from before the search began are seen too.
+   */
+  private void loadPositionKeys(ChessGame game) {
+    int earlierPlies = Math.min(game.getHalfmoveClock(), game.getHistory().getPosition());
+    if (positionKeys.length < earlierPlies + MAX_PLY + 1) {
+      positionKeys = new long[earlierPlies + MAX_PLY + 1];
+    }
+
+    rootIndex = earlierPlies;
+    positionKeys[rootIndex] = game.getZobristKey();
+    if (earlierPlies == 0) {
+      return;
+    }
+
+    ChessGame earlier = new ChessGame(game);
+    for (int i = rootIndex - 1; i >= 0; i--) {
+      earlier.undoMove();
+      positionKeys[i] = earlier.getZobristKey();
+    }
+  }
+
+  private void checkLimits() {
+    if (stopRequested || nodes >= maxNodes || isOutOfTime()) {
+      aborted = true;
+    }
+  }
+
+  private boolean isOutOfTime() {
+    return System.nanoTime() - deadline >= 0;
+  }
+
+  /**
+   * A line cut short by a table hit is continued with the exact results the table holds for the
+   * positions after it, up to the depth of the iteration.
+   */
+  private void extendPvFromTable(int depth, ChessGame.TeamColor teamToMove) {
+    int[] line = pvTable[0];
+    int length = pvLength[0];
+    if (length == 0 || length >= depth) {
+      return;
+    }
+
+    ChessGame.TeamColor team = teamToMove;
+    for (int i = 0; i < length; i++) {
+      pvUndos[i] = board.makeMove(line[i]);
+      team = opposite(team);
+    }
+
+    MoveList moves = moveLists[0];
+    while (length < depth) {
+      long entry = table.probe(board.getZobristKey(team));
+      if (entry == TranspositionTable.MISS
+          || TranspositionTable.bound(entry) != TranspositionTable.EXACT) {
+        break;
+      }
+      int move = TranspositionTable.move(entry);
+      moves.clear();
+      generator.setPosition(board, team);
+      generator.generateMoves(moves);
+      if (move == 0 || !contains(moves, move)) {
+        break;
+      }
+
+      line[length] = move;
+      pvUndos[length] = board.makeMove(move);
+      length++;
+      team = opposite(team);
+    }
+
+    for (int i = length - 1; i >= 0; i--) {
+      board.unmakeMove(line[i], pvUndos[i]);
+    }
+    pvLength[0] = length;
+  }
+
+  private SearchResult buildResult(int score, int depth, long startTime) {
+    List<ChessMove> line = new ArrayList<>(pvLength[0]);
+    for (int i = 0; i < pvLength[0]; i++) {
+      line.add(PackedMove.toChessMove(pvTable[0][i]));
+    }
+    ChessMove bestMove = line.isEmpty() ? null : line.get(0);
+    return new SearchResult(bestMove, score, depth, nodes, elapsedMillis(startTime), line);
+  }
+
+  /**
+   * Answers a search stopped before its first iteration finished with the move it was looking at
+   * first, or with no move if the team has none.
+   */
+  private SearchResult buildInterruptedResult(ChessGame.TeamColor teamToMove, long startTime) {
+    MoveList moves = moveLists[0];
+    moves.clear();
+    generator.setPosition(board, teamToMove);
+    generator.generateMoves(moves);
+
+    if (moves.isEmpty()) {
+      int score = generator.isInCheck() ? -MATE_SCORE : 0;
+      return new SearchResult(null, score, 0, nodes, elapsedMillis(startTime), List.of());
+    }
+    ChessMove move = PackedMove.toChessMove(moves.get(0));
+    return new SearchResult(move, 0, 0, nodes, elapsedMillis(startTime), List.of(move));
+  }
+
+  private static long elapsedMillis(long startTime) {
+    return (System.nanoTime() - startTime) / 1_000_000;
+  }
+
+  private static ChessGame.TeamColor opposite(ChessGame.TeamColor teamColor) {
+    return (teamColor == ChessGame.TeamColor.WHITE)
+        ? ChessGame.TeamColor.BLACK
+        : ChessGame.TeamColor.WHITE;
+  }
+}
@@ -0,0 +1,70 @@
+package chess.engine;
+
+/**
+ * How far a {@link SearchEngine} may search before it has to answer. A search stops at whichever
+ * limit it reaches first, and then answers with the deepest iteration it finished.
+ *
+ * @param maxDepth The deepest iteration to search, in plies
+ * @param maxNodes How many positions the search may visit
+ * @param maxTimeMillis How long the search may run, in milliseconds
+ */
+public record SearchLimits(int maxDepth, long maxNodes, long maxTimeMillis) {
+
+  /** No limit on nodes or time; a search limited only by this runs until it is stopped. */
+  public static final long UNLIMITED = Long.MAX_VALUE;
+
+  /** The deepest a search can go, however its limits are set */
+  public static final int MAX_DEPTH = SearchEngine.MAX_PLY - 1;
+
+  /** Searches as deep as possible until stopped with {@link SearchEngine#stop} */
+  public static final SearchLimits INFINITE = new SearchLimits(MAX_DEPTH, UNLIMITED, UNLIMITED);
+
+  public SearchLimits {
+    if (maxDepth < 1 || maxDepth > MAX_DEPTH) {
+      throw new IllegalArgumentException(
+          String.format("Search depth must be between 1 and %d, not %d", MAX_DEPTH, maxDepth));
+    }
+    if (maxNodes < 1) {
+      throw new IllegalArgumentException("Node limit must be positive, not " + maxNodes);
+    }
+    if (maxTimeMillis < 1) {
+      throw new IllegalArgumentException("Time limit must be positive, not " + maxTimeMillis);
+    }
+  }
+
+  /**
+   * @param maxDepth The deepest iteration to search, in plies
+   * @return Limits that stop after that iteration and nothing else
+   */
+  public static SearchLimits depth(int maxDepth) {
+    return INFINITE.withDepth(maxDepth);
+  }
+
+  /**
+   * @param maxNodes How many positions the search may visit
+   * @return Limits that stop after that many nodes and nothing else
+   */
+  public static SearchLimits nodes(long maxNodes) {
+    return INFINITE.withNodes(maxNodes);
+  }
+
+  /**
+   * @param maxTimeMillis How long the search may run, in milliseconds
+   * @return Limits that stop after that long and nothing else
+   */
+  public static SearchLimits time(long maxTimeMillis) {
+    return INFINITE.withTime(maxTimeMillis);
+  }
+
+  public SearchLimits withDepth(int maxDepth) {
+    return new SearchLimits(maxDepth, maxNodes, maxTimeMillis);
+  }
+
+  public SearchLimits withNodes(long maxNodes) {
+    return new SearchLimits(maxDepth, maxNodes, maxTimeMillis);
+  }
+
+  public SearchLimits withTime(long maxTimeMillis) {
+    return new SearchLimits(maxDepth, maxNodes, maxTimeMillis);
+  }
+}
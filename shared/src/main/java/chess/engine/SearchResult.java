@@ -0,0 +1,53 @@
+package chess.engine;
+
+import chess.ChessMove;
+import java.util.List;
+
+/**
+ * What a {@link SearchEngine} found: the move it would play, how it scores the position, and the
+ * line of play it expects to follow.
+ *
+ * @param bestMove The move to play, or null if the team to move has no legal moves
+ * @param score The position's score in centipawns for the team to move; scores beyond {@link
+ *     SearchEngine#MATE_THRESHOLD} mean a forced checkmate
+ * @param depth The deepest iteration the search finished, in plies
+ * @param nodes How many positions the search visited
+ * @param elapsedMillis How long the search ran, in milliseconds
+ * @param principalVariation The moves both teams are expected to play, starting with the best move
+ */
+public record SearchResult(
+    ChessMove bestMove,
+    int score,
+    int depth,
+    long nodes,
+    long elapsedMillis,
+    List<ChessMove> principalVariation) {
+
+  /**
+   * @return True if the score means one team can force checkmate
+   */
+  public boolean isMate() {
+    return Math.abs(score) >= SearchEngine.MATE_THRESHOLD;
+  }
+
+  /**
+   * @return How many moves until checkmate: positive if the team to move delivers it, negative if
+   *     it is checkmated, and 0 if the score isn't a mate score
+   */
+  public int mateInMoves() {
+    if (!isMate()) {
+      return 0;
+    }
+    if (score > 0) {
+      return (SearchEngine.MATE_SCORE - score + 1) / 2;
+    }
+    return -(SearchEngine.MATE_SCORE + score) / 2;
+  }
+
+  /**
+   * @return Positions visited per second, or the node count if the search took under a millisecond
+   */
+  public long nodesPerSecond() {
+    return (elapsedMillis > 0) ? nodes * 1000 / elapsedMillis : nodes;
+  }
+}
@@ -0,0 +1,73 @@
+package chess.engine;
+
+import chess.ChessGame;
+
+/**
+ * Measures how {@link ParallelSearch} scales with threads. A few positions are searched to a fixed
+ * depth with 1, 2, 4, 8 and 16 threads, starting from an empty table each time, and the time to
+ * reach the depth, the nodes per second and the speedup in time over one thread are printed.
+ *
+ * <p>Lazy SMP threads search overlapping trees, so the node rate grows faster than the time to
+ * depth shrinks; the time to depth is the number that matters to someone waiting on an answer.
+ *
+ * <p>Usage: {@code SearchScaling [depth] [maxThreads] [tableMegabytes]}. The defaults are depth 7,
+ * 16 threads and a 64 MB table.
+ */
+public class SearchScaling {
+
+  private static final String[] POSITIONS = {
+    "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1",
+    "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w - - 0 1",
+    "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 1"
+  };
+
+  public static void main(String[] args) {
+    int depth = (args.length > 0) ? Integer.parseInt(args[0]) : 7;
+    int maxThreads = (args.length > 1) ? Integer.parseInt(args[1]) : 16;
+    int tableMegabytes = (args.length > 2) ? Integer.parseInt(args[2]) : 64;
+
+    System.out.printf(
+        "Search to depth %d over %d positions, %d processors available%n",
+        depth, POSITIONS.length, Runtime.getRuntime().availableProcessors());
+
+    TranspositionTable table = new TranspositionTable(tableMegabytes);
+
+    // Warm up the JIT so the single-thread baseline isn't measured cold
+    try (ParallelSearch warmup = new ParallelSearch(maxThreads, table, PieceSquareEvaluator::new)) {
+      searchAll(warmup, Math.max(1, depth - 1));
+    }
+
+    double baseline = 0;
+    for (int threads = 1; threads <= maxThreads; threads = nextThreadCount(threads, maxThreads)) {
+      try (ParallelSearch search = new ParallelSearch(threads, table, PieceSquareEvaluator::new)) {
+        long start = System.nanoTime();
+        long nodes = searchAll(search, depth);
+        long elapsed = System.nanoTime() - start;
+
+        if (threads == 1) {
+          baseline = elapsed;
+        }
+        System.out.printf(
+            "  %3d threads: %,d nodes in %.1f ms, %,.0f nodes/s, %.2fx time to depth%n",
+            threads, nodes, elapsed / 1e6, nodes / (elapsed / 1e9), baseline / elapsed);
+      }
+    }
+  }
+
+  private static long searchAll(ParallelSearch search, int depth) {
+    long nodes = 0;
+    for (String fen : POSITIONS) {
+      search.getTranspositionTable().clear();
+      nodes += search.search(ChessGame.fromFen(fen), SearchLimits.depth(depth)).nodes();
+    }
+    return nodes;
+  }
+
+  /** Doubles the thread count, ending on the maximum even if it isn't a power of two. */
+  private static int nextThreadCount(int threads, int maxThreads) {
+    if (threads == maxThreads) {
+      return maxThreads + 1;
+    }
+    return Math.min(threads * 2, maxThreads);
+  }
+}
@@ -0,0 +1,300 @@
+package chess.engine;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.rules.AttackTables;
+import chess.rules.PackedMove;
+import chess.rules.SlidingAttacks;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Static exchange evaluation (SEE): works out what a capture wins or loses once both teams have
+ * traded on the square, without making any moves. After the first capture each team in turn
+ * recaptures with its least valuable piece attacking the square, and either team may stop
+ * recapturing when going on would lose more than stopping. Removing a piece from the occupancy
+ * uncovers any rook, bishop or queen lined up behind it, so batteries join the exchange in order.
+ *
+ * <p>Pins and checks are not considered, so a pinned piece may still recapture in the evaluation.
+ * That keeps the answer to a few bitboard lookups per capture, which makes it cheap enough to prune
+ * losing captures from a search and to flag hanging pieces without searching at all.
+ */
+public final class StaticExchange {
+
+  /** Values a king above everything else, so it only takes when nothing can take back */
+  private static final int KING_VALUE = 10_000;
+
+  private static final int MAX_EXCHANGE_LENGTH = 32;
+
+  private StaticExchange() {}
+
+  /**
+   * @param board The position the move is made from
+   * @param move A move for the piece on its start square
+   * @return How much material, in centipawns, the move wins once the exchange on its end square
+   *     plays out; negative if the piece that moves is lost for less than it is worth
+   */
+  public static int evaluate(ChessBoard board, ChessMove move) {
+    int flags = board.getPiece(move.getEndPosition()) != null ? PackedMove.CAPTURE_FLAG : 0;
+    return evaluate(board, PackedMove.of(move, flags));
+  }
+
+  /**
+   * @param board The position the move is made from
+   * @param move A move encoded with {@link PackedMove}
+   * @return How much material, in centipawns, the move wins once the exchange on its end square
+   *     plays out; negative if the piece that moves is lost for less than it is worth
+   */
+  public static int evaluate(ChessBoard board, int move) {
+    int startSquare = PackedMove.startSquare(move);
+    int endSquare = PackedMove.endSquare(move);
+    ChessPiece mover = board.getPiece(ChessPosition.fromSquare(startSquare));
+    ChessPiece victim = board.getPiece(ChessPosition.fromSquare(endSquare));
+
+    int firstGain = (victim != null) ? value(victim.getPieceType()) : 0;
+    int moverValue = value(mover.getPieceType());
+    ChessPiece.PieceType promotion = PackedMove.promotionPiece(move);
+    if (promotion != null) {
+      firstGain += promotion.getMaterialValue() - ChessPiece.PieceType.PAWN.getMaterialValue();
+      moverValue = promotion.getMaterialValue();
+    }
+
+    return exchange(board, startSquare, endSquare, mover.getTeamColor(), firstGain, moverValue);
+  }
+
+  /**
+   * Determines whether a move comes out of the exchange on its end square with at least a given
+   * gain. This answers without listing the whole exchange, stopping as soon as the result is
+   * settled either way, and allocates nothing, so a search can call it on every capture.
+   *
+   * @param board The position the move is made from
+   * @param move A move encoded with {@link PackedMove}
+   * @param threshold The least gain to test for, in centipawns
+   * @return True if {@link #evaluate(ChessBoard, int)} would be at least the threshold
+   */
+  public static boolean isAtLeast(ChessBoard board, int move, int threshold) {
+    int startSquare = PackedMove.startSquare(move);
+    int endSquare = PackedMove.endSquare(move);
+    ChessPiece mover = board.getPiece(ChessPosition.fromSquare(startSquare));
+    ChessPiece victim = board.getPiece(ChessPosition.fromSquare(endSquare));
+
+    int gain = (victim != null) ? value(victim.getPieceType()) : 0;
+    int moverValue = value(mover.getPieceType());
+    ChessPiece.PieceType promotion = PackedMove.promotionPiece(move);
+    if (promotion != null) {
+      gain += promotion.getMaterialValue() - ChessPiece.PieceType.PAWN.getMaterialValue();
+      moverValue = promotion.getMaterialValue();
+    }
+
+    // swap is how far the team that just captured is above the threshold if the exchange stops
+    int swap = gain - threshold;
+    if (swap < 0) {
+      return false;
+    }
+    swap = moverValue - swap;
+    if (swap <= 0) {
+      return true;
+    }
+
+    long occupied = board.getOccupiedBitboard() & ~(1L << startSquare);
+    ChessGame.TeamColor team = mover.getTeamColor();
+    boolean result = true;
+
+    while (true) {
+      team = opposite(team);
+      long attackers = attackersOf(board, endSquare, occupied) & occupied;
+      long teamAttackers = attackers & teamPieces(board, team);
+      if (teamAttackers == 0) {
+        break;
+      }
+      result = !result;
+
+      int attackerSquare = leastValuableAttacker(board, teamAttackers, team);
+      ChessPiece.PieceType attackerType =
+          board.getPiece(ChessPosition.fromSquare(attackerSquare)).getPieceType();
+      if (attackerType == ChessPiece.PieceType.KING) {
+        // The king can only take if nothing can take it back
+        return ((attackers & ~teamPieces(board, team)) != 0) != result;
+      }
+
+      swap = value(attackerType) - swap;
+      if (swap < (result ? 1 : 0)) {
+        break;
+      }
+      occupied &= ~(1L << attackerSquare);
+    }
+    return result;
+  }
+
+  /**
+   * Determines whether the opponent wins material by capturing the piece on a square
+   *
+   * @param board The position to look at
+   * @param position A square holding a piece
+   * @return True if the piece's opponent can capture it and come out ahead after the exchange
+   */
+  public static boolean isHanging(ChessBoard board, ChessPosition position) {
+    ChessPiece piece = board.getPiece(position);
+    if (piece == null) {
+      return false;
+    }
+
+    int square = position.getSquare();
+    ChessGame.TeamColor opponent = opposite(piece.getTeamColor());
+    long allAttackers = attackersOf(board, square, board.getOccupiedBitboard());
+    long attackers = allAttackers & teamPieces(board, opponent);
+    if (attackers == 0) {
+      return false;
+    }
+
+    int attackerSquare = leastValuableAttacker(board, attackers, opponent);
+    ChessPiece attacker = board.getPiece(ChessPosition.fromSquare(attackerSquare));
+    if (attacker.getPieceType() == ChessPiece.PieceType.KING && (allAttackers & ~attackers) != 0) {
+      return false;
+    }
+    return exchange(
+            board,
+            attackerSquare,
+            square,
+            opponent,
+            value(piece.getPieceType()),
+            value(attacker.getPieceType()))
+        > 0;
+  }
+
+  /**
+   * @param board The position to look at
+   * @param teamColor The team whose pieces to check
+   * @return The squares of the team's pieces the opponent can win material by capturing
+   */
+  public static List<ChessPosition> findHangingPieces(
+      ChessBoard board, ChessGame.TeamColor teamColor) {
+    List<ChessPosition> hanging = new ArrayList<>();
+    long pieces = board.getTeamBitboard(teamColor);
+
+    while (pieces != 0) {
+      int square = Long.numberOfTrailingZeros(pieces);
+      pieces &= pieces - 1;
+
+      ChessPosition position = ChessPosition.fromSquare(square);
+      if (isHanging(board, position)) {
+        hanging.add(position);
+      }
+    }
+    return hanging;
+  }
+
+  /**
+   * Plays out the exchange after a first capture and scores it with the swap algorithm: the gains
+   * are listed capture by capture, then folded back from the last one, each team choosing at its
+   * turn between stopping and carrying on.
+   */
+  private static int exchange(
+      ChessBoard board,
+      int fromSquare,
+      int square,
+      ChessGame.TeamColor firstTeam,
+      int firstGain,
+      int firstAttackerValue) {
+    int[] gains = new int[MAX_EXCHANGE_LENGTH];
+    gains[0] = firstGain;
+
+    long occupied = board.getOccupiedBitboard() & ~(1L << fromSquare);
+    long attackers = attackersOf(board, square, occupied) & occupied;
+    ChessGame.TeamColor team = opposite(firstTeam);
+    int valueOnSquare = firstAttackerValue;
+
+    int depth = 0;
+    while (depth + 1 < MAX_EXCHANGE_LENGTH) {
+      long teamAttackers = attackers & teamPieces(board, team);
+      if (teamAttackers == 0) {
+        break;
+      }
+
+      int attackerSquare = leastValuableAttacker(board, teamAttackers, team);
+      ChessPiece.PieceType attackerType =
+          board.getPiece(ChessPosition.fromSquare(attackerSquare)).getPieceType();
+      if (attackerType == ChessPiece.PieceType.KING && (attackers & ~teamAttackers) != 0) {
+        // The king can't take a piece the other team still defends
+        break;
+      }
+
+      depth++;
+      gains[depth] = valueOnSquare - gains[depth - 1];
+      valueOnSquare = value(attackerType);
+      occupied &= ~(1L << attackerSquare);
+      attackers = attackersOf(board, square, occupied) & occupied;
+      team = opposite(team);
+    }
+
+    while (depth > 0) {
+      gains[depth - 1] = -Math.max(-gains[depth - 1], gains[depth]);
+      depth--;
+    }
+    return gains[0];
+  }
+
+  private static int leastValuableAttacker(
+      ChessBoard board, long attackers, ChessGame.TeamColor teamColor) {
+    for (ChessPiece.PieceType type : BY_VALUE) {
+      long ofType = attackers & board.getPieceBitboard(teamColor, type);
+      if (ofType != 0) {
+        return Long.numberOfTrailingZeros(ofType);
+      }
+    }
+    throw new IllegalArgumentException("No attacker of " + teamColor + " in the set");
+  }
+
+  private static final ChessPiece.PieceType[] BY_VALUE = {
+    ChessPiece.PieceType.PAWN,
+    ChessPiece.PieceType.KNIGHT,
+    ChessPiece.PieceType.BISHOP,
+    ChessPiece.PieceType.ROOK,
+    ChessPiece.PieceType.QUEEN,
+    ChessPiece.PieceType.KING
+  };
+
+  /** Every piece of either team attacking a square, with sliders blocked by the given occupancy. */
+  private static long attackersOf(ChessBoard board, int square, long occupied) {
+    ChessGame.TeamColor white = ChessGame.TeamColor.WHITE;
+    ChessGame.TeamColor black = ChessGame.TeamColor.BLACK;
+
+    long rooksAndQueens =
+        bothTeams(board, ChessPiece.PieceType.ROOK) | bothTeams(board, ChessPiece.PieceType.QUEEN);
+    long bishopsAndQueens =
+        bothTeams(board, ChessPiece.PieceType.BISHOP)
+            | bothTeams(board, ChessPiece.PieceType.QUEEN);
+
+    // A pawn attacks the square if a pawn of the other team on the square would attack it
+    return (AttackTables.pawnAttacks(black, square)
+            & board.getPieceBitboard(white, ChessPiece.PieceType.PAWN))
+        | (AttackTables.pawnAttacks(white, square)
+            & board.getPieceBitboard(black, ChessPiece.PieceType.PAWN))
+        | (AttackTables.knightAttacks(square) & bothTeams(board, ChessPiece.PieceType.KNIGHT))
+        | (AttackTables.kingAttacks(square) & bothTeams(board, ChessPiece.PieceType.KING))
+        | (SlidingAttacks.rookAttacks(square, occupied) & rooksAndQueens)
+        | (SlidingAttacks.bishopAttacks(square, occupied) & bishopsAndQueens);
+  }
+
+  private static long bothTeams(ChessBoard board, ChessPiece.PieceType type) {
+    return board.getPieceBitboard(ChessGame.TeamColor.WHITE, type)
+        | board.getPieceBitboard(ChessGame.TeamColor.BLACK, type);
+  }
+
+  private static long teamPieces(ChessBoard board, ChessGame.TeamColor teamColor) {
+    return board.getTeamBitboard(teamColor);
+  }
+
+  private static int value(ChessPiece.PieceType type) {
+    return (type == ChessPiece.PieceType.KING) ? KING_VALUE : type.getMaterialValue();
+  }
+
+  private static ChessGame.TeamColor opposite(ChessGame.TeamColor teamColor) {
+    return (teamColor == ChessGame.TeamColor.WHITE)
+        ? ChessGame.TeamColor.BLACK
+        : ChessGame.TeamColor.WHITE;
+  }
+}
@@ -0,0 +1,381 @@
+package chess.engine;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed-size hash table of search results keyed by Zobrist key, so a search that reaches a
+ * position it has already searched can reuse the score and try the best move first.
+ *
+ * <p>Entries are packed into a single long: the best move in bits 0-15, the score in bits 16-31,
+ * the depth in bits 32-39, the bound type in bits 40-41 and the search generation in bits 42-47.
+ * The accessors {@link #move}, {@link #score}, {@link #depth} and {@link #bound} read them back.
+ * Each entry is stored next to its key XORed with its data, and a probe only accepts an entry whose
+ * two halves XOR back to the key. Threads can then share one table without locks: a read that races
+ * a write sees a mismatch and counts as a miss instead of returning a torn entry.
+ *
+ * <p>Entries sit in buckets of two, chosen by the low bits of the key, and a {@link
+ * ReplacementPolicy} decides which one a new entry overwrites. The table can be kept on the heap in
+ * a {@code long[]}, or off the heap in direct {@link ByteBuffer} segments of up to a gigabyte each,
+ * so tables of many gigabytes neither have to fit in one array nor get scanned by the garbage
+ * collector.
+ */
+public class TranspositionTable {
+
+  /** What {@link #probe} returns when the table has no entry for a position */
+  public static final long MISS = 0;
+
+  /** The score is at most the stored one; the search failed low */
+  public static final int UPPER_BOUND = 1;
+
+  /** The score is at least the stored one; the search failed high */
+  public static final int LOWER_BOUND = 2;
+
+  /** The stored score is the position's exact score */
+  public static final int EXACT = 3;
+
+  private static final int ENTRIES_PER_BUCKET = 2;
+  private static final int LONGS_PER_ENTRY = 2;
+  private static final int BUCKET_BYTES = ENTRIES_PER_BUCKET * LONGS_PER_ENTRY * Long.BYTES;
+  private static final long BYTES_PER_MEGABYTE = 1024 * 1024;
+
+  private static final int SCORE_SHIFT = 16;
+  private static final int DEPTH_SHIFT = 32;
+  private static final int BOUND_SHIFT = 40;
+  private static final int GENERATION_SHIFT = 42;
+  private static final int GENERATION_MASK = 0x3F;
+  private static final int MAX_DEPTH = 0xFF;
+
+  /**
+   * How much one search of age counts against an entry's depth under {@link ReplacementPolicy#AGED}
+   */
+  private static final int AGE_WEIGHT = 8;
+
+  private static final int FILL_SAMPLE_BUCKETS = 1000;
+
+  private final Storage storage;
+  private final long bucketMask;
+  private final ReplacementPolicy policy;
+  private int generation;
+
+  private final LongAdder probes = new LongAdder();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder stores = new LongAdder();
+
+  /**
+   * Creates an on-heap table that ages out entries from earlier searches
+   *
+   * @param megabytes How much memory the table may use
+   */
+  public TranspositionTable(int megabytes) {
+    this(megabytes, ReplacementPolicy.AGED, false);
+  }
+
+  /**
+   * @param megabytes How much memory the table may use; the table takes the largest power of two
+   *     number of buckets that fits
+   * @param policy Which entry a new entry overwrites
+   * @param offHeap True to keep the entries in direct buffers outside the Java heap
+   */
+  public TranspositionTable(int megabytes, ReplacementPolicy policy, boolean offHeap) {
+    if (megabytes < 1) {
+      throw new IllegalArgumentException("Table size must be at least 1 MB, not " + megabytes);
+    }
+    long buckets = Long.highestOneBit(megabytes * BYTES_PER_MEGABYTE / BUCKET_BYTES);
+    long longs = buckets * ENTRIES_PER_BUCKET * LONGS_PER_ENTRY;
+
+    this.bucketMask = buckets - 1;
+    this.policy = policy;
+    this.storage = offHeap ? new DirectStorage(longs) : new HeapStorage(longs);
+  }
+
+  /**
+   * Starts a new search, so entries written from now on count as newer than the ones already in the
+   * table. Call it before the search starts, not while threads are using the table.
+   */
+  public void newSearch() {
+    generation = (generation + 1) & GENERATION_MASK;
+  }
+
+  /**
+   * Looks a position up in the table
+   *
+   * @param key The position's Zobrist key
+   * @return The packed entry for the position, or {@link #MISS} if it isn't in the table
+   */
+  public long probe(long key) {
+    probes.increment();
+    long base = bucketBase(key);
+
+    for (int slot = 0; slot < ENTRIES_PER_BUCKET; slot++) {
+      long data = storage.get(base + slot * LONGS_PER_ENTRY + 1);
+      if (data != MISS && (storage.get(base + slot * LONGS_PER_ENTRY) ^ data) == key) {
+        hits.increment();
+        return data;
+      }
+    }
+    return MISS;
+  }
+
+  /**
+   * Stores a search result, unless the replacement policy keeps the entries already in the bucket.
+   * A result with no best move keeps the move of an earlier entry for the same position.
+   *
+   * @param key The position's Zobrist key
+   * @param move The best move found, encoded with {@link chess.rules.PackedMove}, or 0 for none
+   * @param score The score found
+   * @param depth How many plies deep the position was searched
+   * @param bound {@link #EXACT}, {@link #LOWER_BOUND} or {@link #UPPER_BOUND}
+   */
+  public void store(long key, int move, int score, int depth, int bound) {
+    long base = bucketBase(key);
+    depth = Math.min(depth, MAX_DEPTH);
+
+    int victim = -1;
+    for (int slot = 0; slot < ENTRIES_PER_BUCKET; slot++) {
+      long data = storage.get(base + slot * LONGS_PER_ENTRY + 1);
+      if (data != MISS && (storage.get(base + slot * LONGS_PER_ENTRY) ^ data) == key) {
+        victim = slot;
+        if (move == 0) {
+          move = move(data);
+        }
+        break;
+      }
+    }
+    if (victim < 0) {
+      victim = chooseVictim(key, base, depth);
+      if (victim < 0) {
+        return;
+      }
+    }
+
+    long data =
+        (move & 0xFFFFL)
+            | ((score & 0xFFFFL) << SCORE_SHIFT)
+            | ((long) depth << DEPTH_SHIFT)
+            | ((long) bound << BOUND_SHIFT)
+            | ((long) generation << GENERATION_SHIFT);
+    storage.set(base + victim * LONGS_PER_ENTRY, key ^ data);
+    storage.set(base + victim * LONGS_PER_ENTRY + 1, data);
+    stores.increment();
+  }
+
+  /**
+   * Picks the slot of a bucket a new entry for a different position overwrites
+   *
+   * @return The slot, or -1 if the entry shouldn't be stored
+   */
+  private int chooseVictim(long key, long base, int depth) {
+    return switch (policy) {
+      case ALWAYS_REPLACE -> (int) (key >>> 63);
+      case DEPTH_PREFERRED -> {
+        int shallowest = (effectiveDepth(base, 0) <= effectiveDepth(base, 1)) ? 0 : 1;
+        yield (depth >= effectiveDepth(base, shallowest)) ? shallowest : -1;
+      }
+      case TWO_TIER -> (depth >= effectiveDepth(base, 0)) ? 0 : 1;
+      case AGED -> (agedDepth(base, 0) <= agedDepth(base, 1)) ? 0 : 1;
+    };
+  }
+
+  /** The depth of an entry from this search, or -1 for an empty slot or an older search's entry. */
+  private int effectiveDepth(long base, int slot) {
+    long data = storage.get(base + slot * LONGS_PER_ENTRY + 1);
+    if (data == MISS || generation(data) != generation) {
+      return -1;
+    }
+    return depth(data);
+  }
+
+  private int agedDepth(long base, int slot) {
+    long data = storage.get(base + slot * LONGS_PER_ENTRY + 1);
+    if (data == MISS) {
+      return Integer.MIN_VALUE;
+    }
+    int age = (generation - generation(data)) & GENERATION_MASK;
+    return depth(data) - AGE_WEIGHT * age;
+  }
+
+  private long bucketBase(long key) {
+    return (key & bucketMask) * ENTRIES_PER_BUCKET * LONGS_PER_ENTRY;
+  }
+
+  /** Empties the table and resets its statistics */
+  public void clear() {
+    storage.clear();
+    resetStatistics();
+  }
+
+  public void resetStatistics() {
+    probes.reset();
+    hits.reset();
+    stores.reset();
+  }
+
+  /**
+   * @return How many entries the table can hold
+   */
+  public long getCapacity() {
+    return (bucketMask + 1) * ENTRIES_PER_BUCKET;
+  }
+
+  /**
+   * @return How many bytes the table's entries take up
+   */
+  public long getSizeBytes() {
+    return (bucketMask + 1) * BUCKET_BYTES;
+  }
+
+  public ReplacementPolicy getPolicy() {
+    return policy;
+  }
+
+  public long getProbes() {
+    return probes.sum();
+  }
+
+  public long getHits() {
+    return hits.sum();
+  }
+
+  public long getStores() {
+    return stores.sum();
+  }
+
+  /**
+   * @return The fraction of probes that found their position, or 0 before the first probe
+   */
+  public double getHitRate() {
+    long probeCount = probes.sum();
+    return (probeCount == 0) ? 0 : (double) hits.sum() / probeCount;
+  }
+
+  /**
+   * Estimates how full the table is from its first thousand buckets, counting only entries written
+   * since the last {@link #newSearch}
+   *
+   * @return The fraction of sampled slots in use, between 0 and 1
+   */
+  public double getFillRate() {
+    long sampledBuckets = Math.min(bucketMask + 1, FILL_SAMPLE_BUCKETS);
+    int used = 0;
+
+    for (long bucket = 0; bucket < sampledBuckets; bucket++) {
+      long base = bucket * ENTRIES_PER_BUCKET * LONGS_PER_ENTRY;
+      for (int slot = 0; slot < ENTRIES_PER_BUCKET; slot++) {
+        long data = storage.get(base + slot * LONGS_PER_ENTRY + 1);
+        if (data != MISS && generation(data) == generation) {
+          used++;
+        }
+      }
+    }
+    return (double) used / (sampledBuckets * ENTRIES_PER_BUCKET);
+  }
+
+  /**
+   * @param entry An entry returned by {@link #probe}
+   * @return The best move stored with it, encoded with {@link chess.rules.PackedMove}, or 0 for
+   *     none
+   */
+  public static int move(long entry) {
+    return (int) (entry & 0xFFFF);
+  }
+
+  public static int score(long entry) {
+    return (short) (entry >>> SCORE_SHIFT);
+  }
+
+  public static int depth(long entry) {
+    return (int) (entry >>> DEPTH_SHIFT) & MAX_DEPTH;
+  }
+
+  /**
+   * @param entry An entry returned by {@link #probe}
+   * @return {@link #EXACT}, {@link #LOWER_BOUND} or {@link #UPPER_BOUND}
+   */
+  public static int bound(long entry) {
+    return (int) (entry >>> BOUND_SHIFT) & 3;
+  }
+
+  private static int generation(long entry) {
+    return (int) (entry >>> GENERATION_SHIFT) & GENERATION_MASK;
+  }
+
+  /**
+   * Where the table's longs live; reads and writes are plain, as the entry format checks itself.
+   */
+  private interface Storage {
+    long get(long index);
+
+    void set(long index, long value);
+
+    void clear();
+  }
+
+  private static final class HeapStorage implements Storage {
+    private final long[] longs;
+
+    HeapStorage(long size) {
+      if (size > Integer.MAX_VALUE - 8) {
+        throw new IllegalArgumentException(
+            "Table is too large for the heap; keep it off the heap instead");
+      }
+      longs = new long[(int) size];
+    }
+
+    @Override
+    public long get(long index) {
+      return longs[(int) index];
+    }
+
+    @Override
+    public void set(long index, long value) {
+      longs[(int) index] = value;
+    }
+
+    @Override
+    public void clear() {
+      Arrays.fill(longs, 0);
+    }
+  }
+
+  /** Direct buffers are indexed by int, so the longs are split over buffers of a gigabyte each. */
+  private static final class DirectStorage implements Storage {
+    private static final int SEGMENT_SHIFT = 27;
+    private static final long SEGMENT_MASK = (1L << SEGMENT_SHIFT) - 1;
+
+    private final ByteBuffer[] segments;
+
+    DirectStorage(long size) {
+      int segmentCount = (int) ((size + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+      segments = new ByteBuffer[segmentCount];
+      for (int i = 0; i < segmentCount; i++) {
+        long longs = Math.min(size - ((long) i << SEGMENT_SHIFT), 1L << SEGMENT_SHIFT);
+        segments[i] = ByteBuffer.allocateDirect((int) (longs * Long.BYTES));
+        segments[i].order(ByteOrder.nativeOrder());
+      }
+    }
+
+    @Override
+    public long get(long index) {
+      return segments[(int) (index >>> SEGMENT_SHIFT)].getLong(
+          (int) (index & SEGMENT_MASK) * Long.BYTES);
+    }
+
+    @Override
+    public void set(long index, long value) {
+      segments[(int) (index >>> SEGMENT_SHIFT)].putLong(
+          (int) (index & SEGMENT_MASK) * Long.BYTES, value);
+    }
+
+    @Override
+    public void clear() {
+      for (ByteBuffer segment : segments) {
+        for (int offset = 0; offset < segment.capacity(); offset += Long.BYTES) {
+          segment.putLong(offset, 0);
+        }
+      }
+    }
+  }
+}
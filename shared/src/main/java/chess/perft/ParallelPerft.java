@@ -0,0 +1,100 @@
+package chess.perft;
+
+import chess.ChessGame;
+import chess.rules.MoveList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Counts perft positions on several threads. The moves at the first ply, and optionally the second,
+ * are split into fork/join tasks, and each task counts the rest of its subtree with a plain {@link
+ * Perft} on its own copy of the game.
+ *
+ * <p>Nothing in the {@code chess} package is shared between the copies except tables filled once
+ * when their classes load and never written again: the attack tables, the Zobrist keys, and the
+ * cached pieces, positions and movement rules, which are all immutable. Each worker thread keeps
+ * its own {@link Perft} so its move lists are reused without being shared.
+ */
+public class ParallelPerft implements AutoCloseable {
+
+  private final ForkJoinPool pool;
+  private final int splitPlies;
+  private final ThreadLocal<Perft> perfts = ThreadLocal.withInitial(Perft::new);
+
+  /**
+   * @param threads How many worker threads to count with
+   * @param splitPlies How many plies from the root to split into separate tasks, 1 or 2. Splitting
+   *     two plies gives about 400 tasks from the starting position instead of 20, which keeps many
+   *     threads busy when the subtrees differ in size.
+   */
+  public ParallelPerft(int threads, int splitPlies) {
+    if (splitPlies < 1 || splitPlies > 2) {
+      throw new IllegalArgumentException("Can only split 1 or 2 plies, not " + splitPlies);
+    }
+    this.pool = new ForkJoinPool(threads);
+    this.splitPlies = splitPlies;
+  }
+
+  /**
+   * Counts the positions reachable in exactly the given number of moves
+   *
+   * @param game The game to count from, which is copied and left unchanged
+   * @param depth How many moves deep to count
+   * @return The number of positions at that depth
+   */
+  public long count(ChessGame game, int depth) {
+    return pool.invoke(new PerftTask(new ChessGame(game), depth, splitPlies));
+  }
+
+  /**
+   * @return How many worker threads this counts with
+   */
+  public int getThreads() {
+    return pool.getParallelism();
+  }
+
+  @Override
+  public void close() {
+    pool.shutdown();
+  }
+
+  // Tasks only ever run in this pool, so the Serializable they inherit from ForkJoinTask is unused
+  @SuppressWarnings("serial")
+  private class PerftTask extends RecursiveTask<Long> {
+    private final ChessGame game;
+    private final int depth;
+    private final int splitPlies;
+
+    PerftTask(ChessGame game, int depth, int splitPlies) {
+      this.game = game;
+      this.depth = depth;
+      this.splitPlies = splitPlies;
+    }
+
+    @Override
+    protected Long compute() {
+      if (splitPlies == 0 || depth <= 1) {
+        return perfts.get().count(game, depth);
+      }
+
+      MoveList moves = new MoveList();
+      game.generateValidMoves(moves);
+
+      List<PerftTask> subtasks = new ArrayList<>(moves.size());
+      for (int i = 0; i < moves.size(); i++) {
+        ChessGame child = new ChessGame(game);
+        child.getBoard().makeMove(moves.get(i));
+        child.switchTeamTurn();
+        subtasks.add(new PerftTask(child, depth - 1, splitPlies - 1));
+      }
+
+      long nodes = 0;
+      for (PerftTask subtask : invokeAll(subtasks)) {
+        nodes += subtask.join();
+      }
+      return nodes;
+    }
+  }
+}
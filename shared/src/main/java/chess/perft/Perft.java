@@ -0,0 +1,68 @@
+package chess.perft;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.rules.MoveList;
+
+/**
+ * Counts the positions reachable from a game in an exact number of moves. The counts are known for
+ * many positions, so comparing against them checks the move generator, and timing the count
+ * measures its speed.
+ *
+ * <p>The game is walked with make and unmake on its own board and handed back unchanged. One {@link
+ * MoveList} is kept per ply, so after the first count a search allocates nothing.
+ */
+public class Perft {
+
+  private MoveList[] moveLists = new MoveList[0];
+
+  /**
+   * Counts the positions reachable in exactly the given number of moves
+   *
+   * @param game The game to count from, restored to its starting position when done
+   * @param depth How many moves deep to count
+   * @return The number of positions at that depth
+   */
+  public long count(ChessGame game, int depth) {
+    if (depth == 0) {
+      return 1;
+    }
+    if (moveLists.length < depth) {
+      growMoveLists(depth);
+    }
+    return countMoves(game, depth);
+  }
+
+  private long countMoves(ChessGame game, int depth) {
+    MoveList moves = moveLists[depth - 1];
+    moves.clear();
+    game.generateValidMoves(moves);
+
+    if (depth == 1) {
+      return moves.size();
+    }
+
+    ChessBoard board = game.getBoard();
+    long nodes = 0;
+    for (int i = 0; i < moves.size(); i++) {
+      int move = moves.get(i);
+      int undo = board.makeMove(move);
+      game.switchTeamTurn();
+
+      nodes += countMoves(game, depth - 1);
+
+      game.switchTeamTurn();
+      board.unmakeMove(move, undo);
+    }
+    return nodes;
+  }
+
+  private void growMoveLists(int depth) {
+    MoveList[] grown = new MoveList[depth];
+    System.arraycopy(moveLists, 0, grown, 0, moveLists.length);
+    for (int i = moveLists.length; i < depth; i++) {
+      grown[i] = new MoveList();
+    }
+    moveLists = grown;
+  }
+}
@@ -0,0 +1,64 @@
+package chess.perft;
+
+import chess.ChessGame;
+import java.util.List;
+
+/**
+ * A position with known perft counts. The counts are for the rules this project plays by, which
+ * have no castling or en passant, so they only go as deep as neither can occur, or as deep as the
+ * published count can be corrected by subtracting the castles and en passant captures made on the
+ * last move.
+ *
+ * @param name A name for the position
+ * @param fen The position in Forsyth-Edwards Notation
+ * @param expectedCounts The expected count at depth 1, 2, and so on
+ */
+public record PerftPosition(String name, String fen, long... expectedCounts) {
+
+  public static final List<PerftPosition> REFERENCE_POSITIONS =
+      List.of(
+          new PerftPosition(
+              "start position",
+              "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1",
+              20,
+              400,
+              8902,
+              197281,
+              4865351),
+          new PerftPosition(
+              "kiwipete", "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w - - 0 1", 46),
+          new PerftPosition(
+              "promotions and pins",
+              "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w - - 0 1",
+              6,
+              258),
+          new PerftPosition(
+              "middlegame",
+              "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 1",
+              46,
+              2079,
+              89890,
+              3894594));
+
+  /**
+   * @return The deepest depth with a known count
+   */
+  public int maxDepth() {
+    return expectedCounts.length;
+  }
+
+  /**
+   * @param depth A depth from 1 to {@link #maxDepth()}
+   * @return The known count at that depth
+   */
+  public long expectedCount(int depth) {
+    return expectedCounts[depth - 1];
+  }
+
+  /**
+   * @return A new game set up in this position
+   */
+  public ChessGame createGame() {
+    return ChessGame.fromFen(fen);
+  }
+}
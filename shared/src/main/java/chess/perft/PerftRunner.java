@@ -0,0 +1,45 @@
+package chess.perft;
+
+/**
+ * Runs perft on every reference position and reports the count, time and nodes per second at each
+ * depth, flagging any count that doesn't match the known value.
+ *
+ * <p>Usage: {@code PerftRunner [maxDepth]}. Positions are counted as deep as their known counts go,
+ * capped at {@code maxDepth} if given. Exits with status 1 if any count is wrong.
+ */
+public class PerftRunner {
+
+  public static void main(String[] args) {
+    int maxDepth = (args.length > 0) ? Integer.parseInt(args[0]) : Integer.MAX_VALUE;
+
+    Perft perft = new Perft();
+    boolean allMatched = true;
+
+    for (PerftPosition position : PerftPosition.REFERENCE_POSITIONS) {
+      System.out.println(position.name());
+
+      for (int depth = 1; depth <= Math.min(maxDepth, position.maxDepth()); depth++) {
+        long start = System.nanoTime();
+        long nodes = perft.count(position.createGame(), depth);
+        long elapsed = System.nanoTime() - start;
+
+        boolean matched = nodes == position.expectedCount(depth);
+        allMatched &= matched;
+
+        System.out.printf(
+            "  depth %d: %,d nodes in %.1f ms, %,.0f nodes/s%s%n",
+            depth,
+            nodes,
+            elapsed / 1e6,
+            nodes / (elapsed / 1e9),
+            matched
+                ? ""
+                : String.format("  MISMATCH, expected %,d", position.expectedCount(depth)));
+      }
+    }
+
+    if (!allMatched) {
+      System.exit(1);
+    }
+  }
+}
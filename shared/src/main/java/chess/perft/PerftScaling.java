@@ -0,0 +1,65 @@
+package chess.perft;
+
+import chess.ChessGame;
+
+/**
+ * Measures how perft throughput scales with threads. The starting position is counted at a fixed
+ * depth with 1, 2, 4 and so on threads up to the number of processors, and the nodes per second and
+ * speedup over one thread are printed for each. Every run has to reach the same count.
+ *
+ * <p>Usage: {@code PerftScaling [depth] [maxThreads] [splitPlies]}. The defaults are depth 6, one
+ * thread per available processor and a two-ply split.
+ */
+public class PerftScaling {
+
+  public static void main(String[] args) {
+    int depth = (args.length > 0) ? Integer.parseInt(args[0]) : 6;
+    int maxThreads =
+        (args.length > 1) ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+    int splitPlies = (args.length > 2) ? Integer.parseInt(args[2]) : 2;
+
+    ChessGame game = new ChessGame();
+    System.out.printf(
+        "perft(%d) from the start position, %d processors available%n",
+        depth, Runtime.getRuntime().availableProcessors());
+
+    // Warm up the JIT so the single-thread baseline isn't measured cold
+    try (ParallelPerft warmup = new ParallelPerft(maxThreads, splitPlies)) {
+      warmup.count(game, Math.max(1, depth - 1));
+    }
+
+    long expectedNodes = -1;
+    double baseline = 0;
+    for (int threads = 1; threads <= maxThreads; threads = nextThreadCount(threads, maxThreads)) {
+      try (ParallelPerft perft = new ParallelPerft(threads, splitPlies)) {
+        long start = System.nanoTime();
+        long nodes = perft.count(game, depth);
+        long elapsed = System.nanoTime() - start;
+
+        if (expectedNodes < 0) {
+          expectedNodes = nodes;
+        } else if (nodes != expectedNodes) {
+          System.out.printf(
+              "  %d threads counted %,d nodes, expected %,d%n", threads, nodes, expectedNodes);
+          System.exit(1);
+        }
+
+        double nodesPerSecond = nodes / (elapsed / 1e9);
+        if (threads == 1) {
+          baseline = nodesPerSecond;
+        }
+        System.out.printf(
+            "  %3d threads: %,d nodes in %.1f ms, %,.0f nodes/s, %.2fx%n",
+            threads, nodes, elapsed / 1e6, nodesPerSecond, nodesPerSecond / baseline);
+      }
+    }
+  }
+
+  /** Doubles the thread count, ending on the maximum even if it isn't a power of two. */
+  private static int nextThreadCount(int threads, int maxThreads) {
+    if (threads == maxThreads) {
+      return maxThreads + 1;
+    }
+    return Math.min(threads * 2, maxThreads);
+  }
+}
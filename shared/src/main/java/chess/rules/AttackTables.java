@@ -0,0 +1,72 @@
+package chess.rules;
+
+import chess.ChessGame;
+
+/**
+ * Precomputed attack sets for the pieces that jump to a fixed pattern of squares. Each table holds
+ * one bitboard per square, using the same square numbering as {@link chess.ChessBoard}, so finding
+ * where a knight, king or pawn attacks is a single array load.
+ */
+public final class AttackTables {
+
+  private static final int[][] KNIGHT_OFFSETS = {
+    {2, 1}, {1, 2}, {2, -1}, {1, -2}, {-2, 1}, {-1, 2}, {-2, -1}, {-1, -2}
+  };
+  private static final int[][] KING_OFFSETS = {
+    {1, 0}, {-1, 0}, {0, 1}, {0, -1}, {1, 1}, {1, -1}, {-1, 1}, {-1, -1}
+  };
+  private static final int[][] WHITE_PAWN_OFFSETS = {{1, 1}, {1, -1}};
+  private static final int[][] BLACK_PAWN_OFFSETS = {{-1, 1}, {-1, -1}};
+
+  private static final long[] KNIGHT_ATTACKS = buildTable(KNIGHT_OFFSETS);
+  private static final long[] KING_ATTACKS = buildTable(KING_OFFSETS);
+  private static final long[][] PAWN_ATTACKS = {
+    buildTable(WHITE_PAWN_OFFSETS), buildTable(BLACK_PAWN_OFFSETS)
+  };
+
+  private AttackTables() {}
+
+  /**
+   * @param square The square the knight stands on
+   * @return The squares a knight on that square attacks
+   */
+  public static long knightAttacks(int square) {
+    return KNIGHT_ATTACKS[square];
+  }
+
+  /**
+   * @param square The square the king stands on
+   * @return The squares a king on that square attacks
+   */
+  public static long kingAttacks(int square) {
+    return KING_ATTACKS[square];
+  }
+
+  /**
+   * @param teamColor The team the pawn belongs to
+   * @param square The square the pawn stands on
+   * @return The squares a pawn on that square can capture on
+   */
+  public static long pawnAttacks(ChessGame.TeamColor teamColor, int square) {
+    return PAWN_ATTACKS[teamColor.ordinal()][square];
+  }
+
+  private static long[] buildTable(int[][] offsets) {
+    long[] table = new long[64];
+
+    for (int square = 0; square < 64; square++) {
+      int row = square / 8;
+      int col = square % 8;
+
+      for (int[] offset : offsets) {
+        int targetRow = row + offset[0];
+        int targetCol = col + offset[1];
+        if (targetRow >= 0 && targetRow < 8 && targetCol >= 0 && targetCol < 8) {
+          table[square] |= 1L << (targetRow * 8 + targetCol);
+        }
+      }
+    }
+
+    return table;
+  }
+}
@@ -1,21 +1,12 @@
 package chess.rules;
 
 import chess.ChessBoard;
-import chess.ChessMove;
-import chess.ChessPosition;
-import java.util.ArrayList;
-import java.util.Collection;
+import chess.ChessGame;
 
 public class BishopMovementRules extends SharedMovementRules {
   @Override
-  public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition startPosition) {
-    Collection<ChessMove> moves = new ArrayList<>();
-
-    calculateMoves(board, startPosition, 1, 1, moves, true);
-    calculateMoves(board, startPosition, 1, -1, moves, true);
-    calculateMoves(board, startPosition, -1, 1, moves, true);
-    calculateMoves(board, startPosition, -1, -1, moves, true);
-
-    return moves;
+  protected long targets(ChessBoard board, int square, ChessGame.TeamColor teamColor) {
+    return SlidingAttacks.bishopAttacks(square, board.getOccupiedBitboard())
+        & ~board.getTeamBitboard(teamColor);
   }
 }
@@ -1,25 +1,11 @@
 package chess.rules;
 
 import chess.ChessBoard;
-import chess.ChessMove;
-import chess.ChessPosition;
-import java.util.ArrayList;
-import java.util.Collection;
+import chess.ChessGame;
 
 public class KnightMovementRules extends SharedMovementRules {
   @Override
-  public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition startPosition) {
-    Collection<ChessMove> moves = new ArrayList<>();
-
-    calculateMoves(board, startPosition, 2, 1, moves, false);
-    calculateMoves(board, startPosition, 1, 2, moves, false);
-    calculateMoves(board, startPosition, 2, -1, moves, false);
-    calculateMoves(board, startPosition, 1, -2, moves, false);
-    calculateMoves(board, startPosition, -2, 1, moves, false);
-    calculateMoves(board, startPosition, -1, 2, moves, false);
-    calculateMoves(board, startPosition, -2, -1, moves, false);
-    calculateMoves(board, startPosition, -1, -2, moves, false);
-
-    return moves;
+  protected long targets(ChessBoard board, int square, ChessGame.TeamColor teamColor) {
+    return AttackTables.knightAttacks(square) & ~board.getTeamBitboard(teamColor);
   }
 }
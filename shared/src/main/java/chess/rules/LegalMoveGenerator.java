@@ -0,0 +1,259 @@
+package chess.rules;
+
+import chess.*;
+import java.util.Collection;
+
+/**
+ * Generates only the moves a team can legally make in one position, without trying each move and
+ * testing for check afterward.
+ *
+ * <p>When given a position, the generator finds the pieces giving check to the team's king and the
+ * team's pieces that are pinned against it. A move is then legal if the king doesn't step onto an
+ * attacked square, a pinned piece stays on the line between its king and the pinning piece, and,
+ * while in check, the move captures the checking piece or blocks its path. Only the king can move
+ * out of a double check.
+ *
+ * <p>Moves come out encoded with {@link PackedMove} into a caller's {@link MoveList}, so a
+ * generator and a list can be reused for position after position without allocating. The analysis
+ * reflects the board as it was when {@link #setPosition} was last called, and has to be redone
+ * after the board changes.
+ */
+public final class LegalMoveGenerator {
+
+  private ChessBoard board;
+  private ChessGame.TeamColor teamColor;
+  private ChessGame.TeamColor opponentColor;
+
+  private long friendlyPieces;
+  private long occupied;
+
+  private int kingSquare;
+  private long checkers;
+  private long pinned;
+  private long evasionSquares;
+
+  /** Creates a generator with no position; call {@link #setPosition} before generating moves. */
+  public LegalMoveGenerator() {}
+
+  /**
+   * @param board The board to generate moves on
+   * @param teamColor The team to generate moves for
+   */
+  public LegalMoveGenerator(ChessBoard board, ChessGame.TeamColor teamColor) {
+    setPosition(board, teamColor);
+  }
+
+  /**
+   * Finds the checkers and pinned pieces for a team in the board's current position
+   *
+   * @param board The board to generate moves on
+   * @param teamColor The team to generate moves for
+   */
+  public void setPosition(ChessBoard board, ChessGame.TeamColor teamColor) {
+    this.board = board;
+    this.teamColor = teamColor;
+    this.opponentColor =
+        (teamColor == ChessGame.TeamColor.WHITE)
+            ? ChessGame.TeamColor.BLACK
+            : ChessGame.TeamColor.WHITE;
+
+    friendlyPieces = board.getTeamBitboard(teamColor);
+    occupied = board.getOccupiedBitboard();
+
+    kingSquare = board.getKingSquare(teamColor);
+    if (kingSquare < 0) {
+      checkers = 0;
+      pinned = 0;
+      evasionSquares = -1L;
+      return;
+    }
+
+    checkers = attackersOf(kingSquare, occupied);
+    pinned = findPinnedPieces();
+
+    if (checkers == 0) {
+      evasionSquares = -1L;
+    } else if (Long.bitCount(checkers) == 1) {
+      int checkerSquare = Long.numberOfTrailingZeros(checkers);
+      evasionSquares = checkers | SlidingAttacks.squaresBetween(kingSquare, checkerSquare);
+    } else {
+      evasionSquares = 0;
+    }
+  }
+
+  /**
+   * @return True if the team's king is currently attacked
+   */
+  public boolean isInCheck() {
+    return checkers != 0;
+  }
+
+  /**
+   * Gets the legal moves for the team's piece at the given position
+   *
+   * @param startPosition The position of the piece to get moves for
+   * @return The legal moves for that piece, empty if the position doesn't hold one of the team's
+   *     pieces
+   */
+  public Collection<ChessMove> validMoves(ChessPosition startPosition) {
+    MoveList moves = new MoveList(32);
+    generateMoves(startPosition.getSquare(), moves);
+    return moves.toChessMoves();
+  }
+
+  /**
+   * Adds every legal move the team can make to a move list
+   *
+   * @param moves The list to add the moves to
+   */
+  public void generateMoves(MoveList moves) {
+    long pieces = friendlyPieces;
+
+    while (pieces != 0) {
+      int square = Long.numberOfTrailingZeros(pieces);
+      pieces &= pieces - 1;
+
+      generateMoves(square, moves);
+    }
+  }
+
+  /**
+   * Adds the legal moves of the team's piece on one square to a move list
+   *
+   * @param square The square of the piece to add moves for
+   * @param moves The list to add the moves to, left unchanged if the square doesn't hold one of the
+   *     team's pieces
+   */
+  public void generateMoves(int square, MoveList moves) {
+    if ((friendlyPieces & (1L << square)) == 0) {
+      return;
+    }
+
+    ChessPiece.PieceType type = board.getPiece(ChessPosition.fromSquare(square)).getPieceType();
+    long targets = legalTargets(square, type);
+    boolean promotes = type == ChessPiece.PieceType.PAWN && isPromotionRow(targets);
+
+    while (targets != 0) {
+      int targetSquare = Long.numberOfTrailingZeros(targets);
+      targets &= targets - 1;
+
+      int flags = (occupied & (1L << targetSquare)) != 0 ? PackedMove.CAPTURE_FLAG : 0;
+      if (promotes) {
+        PawnMovementRules.addPromotions(square, targetSquare, flags, moves);
+      } else {
+        moves.add(PackedMove.of(square, targetSquare, flags));
+      }
+    }
+  }
+
+  /**
+   * @return True if the team has at least one legal move, stopping at the first one found
+   */
+  public boolean hasValidMoves() {
+    long pieces = friendlyPieces;
+
+    while (pieces != 0) {
+      int square = Long.numberOfTrailingZeros(pieces);
+      pieces &= pieces - 1;
+
+      ChessPiece piece = board.getPiece(ChessPosition.fromSquare(square));
+      if (legalTargets(square, piece.getPieceType()) != 0) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  private long legalTargets(int square, ChessPiece.PieceType type) {
+    if (square == kingSquare) {
+      return kingTargets();
+    }
+
+    long targets = pseudoLegalTargets(square, type) & evasionSquares;
+    if ((pinned & (1L << square)) != 0) {
+      targets &= SlidingAttacks.lineThrough(kingSquare, square);
+    }
+    return targets;
+  }
+
+  private long pseudoLegalTargets(int square, ChessPiece.PieceType type) {
+    return switch (type) {
+      case KING -> AttackTables.kingAttacks(square) & ~friendlyPieces;
+      case QUEEN -> SlidingAttacks.queenAttacks(square, occupied) & ~friendlyPieces;
+      case BISHOP -> SlidingAttacks.bishopAttacks(square, occupied) & ~friendlyPieces;
+      case KNIGHT -> AttackTables.knightAttacks(square) & ~friendlyPieces;
+      case ROOK -> SlidingAttacks.rookAttacks(square, occupied) & ~friendlyPieces;
+      case PAWN -> pawnTargets(square);
+    };
+  }
+
+  private long pawnTargets(int square) {
+    return PawnMovementRules.pawnTargets(square, teamColor, occupied, occupied & ~friendlyPieces);
+  }
+
+  /** The king may step anywhere not attacked once it has moved off its current square. */
+  private long kingTargets() {
+    long targets = AttackTables.kingAttacks(kingSquare) & ~friendlyPieces;
+    long occupiedWithoutKing = occupied & ~(1L << kingSquare);
+
+    long safeTargets = 0;
+    while (targets != 0) {
+      int targetSquare = Long.numberOfTrailingZeros(targets);
+      targets &= targets - 1;
+
+      if (!board.isSquareAttacked(targetSquare, opponentColor, occupiedWithoutKing)) {
+        safeTargets |= 1L << targetSquare;
+      }
+    }
+    return safeTargets;
+  }
+
+  private long findPinnedPieces() {
+    long rooksAndQueens =
+        board.getPieceBitboard(opponentColor, ChessPiece.PieceType.ROOK)
+            | board.getPieceBitboard(opponentColor, ChessPiece.PieceType.QUEEN);
+    long bishopsAndQueens =
+        board.getPieceBitboard(opponentColor, ChessPiece.PieceType.BISHOP)
+            | board.getPieceBitboard(opponentColor, ChessPiece.PieceType.QUEEN);
+
+    long snipers =
+        (SlidingAttacks.rookAttacks(kingSquare, 0) & rooksAndQueens)
+            | (SlidingAttacks.bishopAttacks(kingSquare, 0) & bishopsAndQueens);
+
+    long pinnedPieces = 0;
+    while (snipers != 0) {
+      int sniperSquare = Long.numberOfTrailingZeros(snipers);
+      snipers &= snipers - 1;
+
+      long blockers = SlidingAttacks.squaresBetween(kingSquare, sniperSquare) & occupied;
+      if (Long.bitCount(blockers) == 1) {
+        pinnedPieces |= blockers & friendlyPieces;
+      }
+    }
+    return pinnedPieces;
+  }
+
+  /** Finds the opponent's pieces attacking a square, given which squares are occupied. */
+  private long attackersOf(int square, long occupiedSquares) {
+    long rooksAndQueens =
+        board.getPieceBitboard(opponentColor, ChessPiece.PieceType.ROOK)
+            | board.getPieceBitboard(opponentColor, ChessPiece.PieceType.QUEEN);
+    long bishopsAndQueens =
+        board.getPieceBitboard(opponentColor, ChessPiece.PieceType.BISHOP)
+            | board.getPieceBitboard(opponentColor, ChessPiece.PieceType.QUEEN);
+
+    return (AttackTables.pawnAttacks(teamColor, square)
+            & board.getPieceBitboard(opponentColor, ChessPiece.PieceType.PAWN))
+        | (AttackTables.knightAttacks(square)
+            & board.getPieceBitboard(opponentColor, ChessPiece.PieceType.KNIGHT))
+        | (AttackTables.kingAttacks(square)
+            & board.getPieceBitboard(opponentColor, ChessPiece.PieceType.KING))
+        | (SlidingAttacks.rookAttacks(square, occupiedSquares) & rooksAndQueens)
+        | (SlidingAttacks.bishopAttacks(square, occupiedSquares) & bishopsAndQueens);
+  }
+
+  private boolean isPromotionRow(long targets) {
+    return (targets & PawnMovementRules.promotionRow(teamColor)) != 0;
+  }
+}
@@ -0,0 +1,78 @@
+package chess.rules;
+
+import chess.ChessMove;
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * A growable list of moves encoded with {@link PackedMove}, backed by an int array. Clearing the
+ * list keeps its array, so one list can be refilled for every position without allocating.
+ */
+public class MoveList {
+
+  private int[] moves;
+  private int size;
+
+  public MoveList() {
+    this(256);
+  }
+
+  /**
+   * @param capacity How many moves the list can hold before it has to grow
+   */
+  public MoveList(int capacity) {
+    moves = new int[capacity];
+  }
+
+  public void add(int move) {
+    if (size == moves.length) {
+      int[] grown = new int[moves.length * 2];
+      System.arraycopy(moves, 0, grown, 0, size);
+      moves = grown;
+    }
+    moves[size++] = move;
+  }
+
+  public int get(int index) {
+    return moves[index];
+  }
+
+  public void set(int index, int move) {
+    moves[index] = move;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public void clear() {
+    size = 0;
+  }
+
+  /**
+   * Drops the moves past the given number, keeping the array
+   *
+   * @param newSize How many moves to keep, no more than the list holds
+   */
+  public void truncate(int newSize) {
+    if (newSize < 0 || newSize > size) {
+      throw new IndexOutOfBoundsException("Can't truncate " + size + " moves to " + newSize);
+    }
+    size = newSize;
+  }
+
+  /**
+   * @return The moves in this list as {@link ChessMove} objects
+   */
+  public Collection<ChessMove> toChessMoves() {
+    Collection<ChessMove> chessMoves = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      chessMoves.add(PackedMove.toChessMove(moves[i]));
+    }
+    return chessMoves;
+  }
+}
@@ -5,6 +5,20 @@ import chess.ChessMove;
 import chess.ChessPosition;
 import java.util.Collection;
 
+/**
+ * How one type of piece moves. Implementations hold no state, so a single shared instance per piece
+ * type, looked up with {@link MovementRulesRegistry#forType}, serves every board.
+ */
 public interface MovementRules {
   Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition startPosition);
+
+  /**
+   * Adds the moves of the piece on a square to a caller's list instead of returning a new
+   * collection. Moves that would leave the piece's king in check are included.
+   *
+   * @param board The board the piece is on
+   * @param square The square of the piece to add moves for
+   * @param moves The list to add the moves to, encoded with {@link PackedMove}
+   */
+  void addPieceMoves(ChessBoard board, int square, MoveList moves);
 }
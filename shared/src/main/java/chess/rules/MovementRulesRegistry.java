@@ -0,0 +1,29 @@
+package chess.rules;
+
+import chess.ChessPiece;
+
+/** The shared movement rules for each type of piece. */
+public final class MovementRulesRegistry {
+
+  private static final MovementRules[] RULES =
+      new MovementRules[ChessPiece.PieceType.values().length];
+
+  static {
+    RULES[ChessPiece.PieceType.KING.ordinal()] = new KingMovementRules();
+    RULES[ChessPiece.PieceType.QUEEN.ordinal()] = new QueenMovementRules();
+    RULES[ChessPiece.PieceType.BISHOP.ordinal()] = new BishopMovementRules();
+    RULES[ChessPiece.PieceType.KNIGHT.ordinal()] = new KnightMovementRules();
+    RULES[ChessPiece.PieceType.ROOK.ordinal()] = new RookMovementRules();
+    RULES[ChessPiece.PieceType.PAWN.ordinal()] = new PawnMovementRules();
+  }
+
+  private MovementRulesRegistry() {}
+
+  /**
+   * @param type A type of piece
+   * @return The movement rules shared by every piece of that type
+   */
+  public static MovementRules forType(ChessPiece.PieceType type) {
+    return RULES[type.ordinal()];
+  }
+}
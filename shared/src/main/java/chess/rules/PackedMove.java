@@ -0,0 +1,115 @@
+package chess.rules;
+
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+
+/**
+ * Encodes a move in the low 16 bits of an int so move generation can work with plain ints instead
+ * of {@link ChessMove} objects. Bits 0-5 hold the start square, bits 6-11 the end square, bits
+ * 12-13 the promotion piece, bit 14 is set for promotions and bit 15 for captures.
+ */
+public final class PackedMove {
+
+  public static final int PROMOTION_FLAG = 1 << 14;
+  public static final int CAPTURE_FLAG = 1 << 15;
+
+  private static final int SQUARE_MASK = 0x3F;
+  private static final int END_SHIFT = 6;
+  private static final int PROMOTION_SHIFT = 12;
+
+  private static final ChessPiece.PieceType[] PROMOTION_TYPES = {
+    ChessPiece.PieceType.QUEEN,
+    ChessPiece.PieceType.BISHOP,
+    ChessPiece.PieceType.KNIGHT,
+    ChessPiece.PieceType.ROOK
+  };
+
+  private PackedMove() {}
+
+  /**
+   * @param startSquare The square the piece moves from
+   * @param endSquare The square the piece moves to
+   * @param flags {@link #CAPTURE_FLAG} if the move captures, otherwise 0
+   * @return The encoded move
+   */
+  public static int of(int startSquare, int endSquare, int flags) {
+    return startSquare | (endSquare << END_SHIFT) | flags;
+  }
+
+  /**
+   * @param startSquare The square the pawn moves from
+   * @param endSquare The square the pawn moves to
+   * @param promotionPiece The piece type the pawn becomes
+   * @param flags {@link #CAPTURE_FLAG} if the move captures, otherwise 0
+   * @return The encoded promotion
+   */
+  public static int promotion(
+      int startSquare, int endSquare, ChessPiece.PieceType promotionPiece, int flags) {
+    return of(startSquare, endSquare, flags)
+        | PROMOTION_FLAG
+        | (promotionIndex(promotionPiece) << PROMOTION_SHIFT);
+  }
+
+  /**
+   * @param move A move
+   * @param flags {@link #CAPTURE_FLAG} if the move captures, otherwise 0
+   * @return The encoded move, as a promotion if the move names a promotion piece
+   */
+  public static int of(ChessMove move, int flags) {
+    int startSquare = move.getStartPosition().getSquare();
+    int endSquare = move.getEndPosition().getSquare();
+    if (move.getPromotionPiece() != null) {
+      return promotion(startSquare, endSquare, move.getPromotionPiece(), flags);
+    }
+    return of(startSquare, endSquare, flags);
+  }
+
+  public static int startSquare(int move) {
+    return move & SQUARE_MASK;
+  }
+
+  public static int endSquare(int move) {
+    return (move >>> END_SHIFT) & SQUARE_MASK;
+  }
+
+  public static boolean isCapture(int move) {
+    return (move & CAPTURE_FLAG) != 0;
+  }
+
+  public static boolean isPromotion(int move) {
+    return (move & PROMOTION_FLAG) != 0;
+  }
+
+  /**
+   * @param move An encoded move
+   * @return The piece type a pawn is promoted to, or null if the move isn't a promotion
+   */
+  public static ChessPiece.PieceType promotionPiece(int move) {
+    if (!isPromotion(move)) {
+      return null;
+    }
+    return PROMOTION_TYPES[(move >>> PROMOTION_SHIFT) & 3];
+  }
+
+  /**
+   * @param move An encoded move
+   * @return The same move as a {@link ChessMove}
+   */
+  public static ChessMove toChessMove(int move) {
+    return new ChessMove(
+        ChessPosition.fromSquare(startSquare(move)),
+        ChessPosition.fromSquare(endSquare(move)),
+        promotionPiece(move));
+  }
+
+  private static int promotionIndex(ChessPiece.PieceType promotionPiece) {
+    return switch (promotionPiece) {
+      case QUEEN -> 0;
+      case BISHOP -> 1;
+      case KNIGHT -> 2;
+      case ROOK -> 3;
+      default -> throw new IllegalArgumentException("Can't promote to " + promotionPiece);
+    };
+  }
+}
@@ -1,112 +1,79 @@
 package chess.rules;
 
 import chess.*;
-import java.util.ArrayList;
-import java.util.Collection;
 
 public class PawnMovementRules extends SharedMovementRules {
-  @Override
-  public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition startPosition) {
-    Collection<ChessMove> moves = new ArrayList<>();
-
-    ChessPiece piece = board.getPiece(startPosition);
-    ChessGame.TeamColor teamColor = piece.getTeamColor();
-    int forwardDirection = getForwardDirection(teamColor);
-
-    addForwardMoves(board, startPosition, forwardDirection, teamColor, moves);
 
-    int rightDiagonal = 1;
-    int leftDiagonal = -1;
-    addCaptureMoves(board, startPosition, forwardDirection, rightDiagonal, teamColor, moves);
-    addCaptureMoves(board, startPosition, forwardDirection, leftDiagonal, teamColor, moves);
-
-    return moves;
-  }
+  private static final long WHITE_PROMOTION_ROW = 0xFF00000000000000L;
+  private static final long BLACK_PROMOTION_ROW = 0x00000000000000FFL;
 
-  private int getForwardDirection(ChessGame.TeamColor teamColor) {
-    ChessGame.TeamColor white = ChessGame.TeamColor.WHITE;
-
-    return (teamColor == white) ? 1 : -1;
+  @Override
+  protected long targets(ChessBoard board, int square, ChessGame.TeamColor teamColor) {
+    long occupied = board.getOccupiedBitboard();
+    return pawnTargets(square, teamColor, occupied, occupied & ~board.getTeamBitboard(teamColor));
   }
 
-  private void addForwardMoves(
-      ChessBoard board,
-      ChessPosition startPosition,
-      int forwardDirection,
-      ChessGame.TeamColor teamColor,
-      Collection<ChessMove> moves) {
-
-    int row = startPosition.getRow();
-    int col = startPosition.getColumn();
-
-    ChessPosition oneForward = new ChessPosition(row + forwardDirection, col);
-    ChessPosition twoForward = new ChessPosition(row + (2 * forwardDirection), col);
-
-    if (isFirstMove(teamColor, startPosition)) {
-      if (board.isRealPosition(twoForward)
-          && !board.isOccupiedAt(twoForward)
-          && !board.isOccupiedAt(oneForward)) {
-        moves.add(new ChessMove(startPosition, oneForward, null));
-        moves.add(new ChessMove(startPosition, twoForward, null));
-      }
+  /** Adds a move for every promotion piece when the pawn reaches the final row. */
+  @Override
+  public void addPieceMoves(ChessBoard board, int square, MoveList moves) {
+    ChessGame.TeamColor teamColor = board.getPiece(ChessPosition.fromSquare(square)).getTeamColor();
+    long targets = targets(board, square, teamColor);
+    if ((targets & promotionRow(teamColor)) == 0) {
+      super.addPieceMoves(board, square, moves);
+      return;
     }
 
-    if (board.isRealPosition(oneForward) && !board.isOccupiedAt(oneForward)) {
-      if (isPromotionRow(teamColor, oneForward)) {
-        promotePiece(startPosition, oneForward, moves);
-      } else {
-        moves.add(new ChessMove(startPosition, oneForward, null));
-      }
+    long occupied = board.getOccupiedBitboard();
+    while (targets != 0) {
+      int targetSquare = Long.numberOfTrailingZeros(targets);
+      targets &= targets - 1;
+
+      addPromotions(square, targetSquare, captureFlag(occupied, targetSquare), moves);
     }
   }
 
-  private void addCaptureMoves(
-      ChessBoard board,
-      ChessPosition startPosition,
-      int forwardDirection,
-      int diagonalDirection,
-      ChessGame.TeamColor teamColor,
-      Collection<ChessMove> moves) {
-
-    int row = startPosition.getRow();
-    int col = startPosition.getColumn();
-
-    ChessPosition endPosition = new ChessPosition(row + forwardDirection, col + diagonalDirection);
-
-    if (board.isRealPosition(endPosition) && board.isOccupiedAt(endPosition)) {
-      ChessPiece otherPiece = board.getPiece(endPosition);
-      ChessGame.TeamColor otherPieceTeamColor = otherPiece.getTeamColor();
-      if (teamColor != otherPieceTeamColor) {
-        if (isPromotionRow(teamColor, endPosition)) {
-          promotePiece(startPosition, endPosition, moves);
-        } else {
-          moves.add(new ChessMove(startPosition, endPosition, null));
-        }
-      }
+  /**
+   * Finds the squares a pawn can move to: one square forward if it's empty, two from the starting
+   * row if both are empty, and diagonally forward onto an opponent's piece
+   *
+   * @param square The square the pawn stands on
+   * @param teamColor The team the pawn belongs to
+   * @param occupied A bitboard of every occupied square
+   * @param opponentPieces A bitboard of the squares holding the opponent's pieces
+   * @return A bitboard of the squares the pawn can move to
+   */
+  static long pawnTargets(
+      int square, ChessGame.TeamColor teamColor, long occupied, long opponentPieces) {
+    long targets = AttackTables.pawnAttacks(teamColor, square) & opponentPieces;
+
+    int forward = (teamColor == ChessGame.TeamColor.WHITE) ? 8 : -8;
+    int oneForward = square + forward;
+    if (oneForward < 0 || oneForward > 63 || (occupied & (1L << oneForward)) != 0) {
+      return targets;
     }
-  }
+    targets |= 1L << oneForward;
 
-  private boolean isFirstMove(ChessGame.TeamColor teamColor, ChessPosition startPosition) {
-    ChessGame.TeamColor white = ChessGame.TeamColor.WHITE;
-    ChessGame.TeamColor black = ChessGame.TeamColor.BLACK;
-    int row = startPosition.getRow();
+    int startRow = (teamColor == ChessGame.TeamColor.WHITE) ? 1 : 6;
+    int twoForward = oneForward + forward;
+    if (square / 8 == startRow && (occupied & (1L << twoForward)) == 0) {
+      targets |= 1L << twoForward;
+    }
 
-    return (teamColor == white && row == 2) || (teamColor == black && row == 7);
+    return targets;
   }
 
-  private boolean isPromotionRow(ChessGame.TeamColor teamColor, ChessPosition position) {
-    ChessGame.TeamColor white = ChessGame.TeamColor.WHITE;
-    ChessGame.TeamColor black = ChessGame.TeamColor.BLACK;
-    int row = position.getRow();
-
-    return (teamColor == white && row == 8) || (teamColor == black && row == 1);
+  /**
+   * @return A bitboard of the row a team's pawns promote on
+   */
+  static long promotionRow(ChessGame.TeamColor teamColor) {
+    return (teamColor == ChessGame.TeamColor.WHITE) ? WHITE_PROMOTION_ROW : BLACK_PROMOTION_ROW;
   }
 
-  private void promotePiece(
-      ChessPosition startPosition, ChessPosition endPosition, Collection<ChessMove> moves) {
-    moves.add(new ChessMove(startPosition, endPosition, ChessPiece.PieceType.QUEEN));
-    moves.add(new ChessMove(startPosition, endPosition, ChessPiece.PieceType.BISHOP));
-    moves.add(new ChessMove(startPosition, endPosition, ChessPiece.PieceType.KNIGHT));
-    moves.add(new ChessMove(startPosition, endPosition, ChessPiece.PieceType.ROOK));
+  /** Adds a promotion to a queen, bishop, knight and rook, in that order. */
+  static void addPromotions(int startSquare, int endSquare, int flags, MoveList moves) {
+    moves.add(PackedMove.promotion(startSquare, endSquare, ChessPiece.PieceType.QUEEN, flags));
+    moves.add(PackedMove.promotion(startSquare, endSquare, ChessPiece.PieceType.BISHOP, flags));
+    moves.add(PackedMove.promotion(startSquare, endSquare, ChessPiece.PieceType.KNIGHT, flags));
+    moves.add(PackedMove.promotion(startSquare, endSquare, ChessPiece.PieceType.ROOK, flags));
   }
 }
@@ -4,43 +4,42 @@ import chess.*;
 import java.util.Collection;
 
 public abstract class SharedMovementRules implements MovementRules {
-  public abstract Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition startPosition);
-
-  protected void calculateMoves(
-      ChessBoard board,
-      ChessPosition startPosition,
-      int rowDirection,
-      int colDirection,
-      Collection<ChessMove> moves,
-      boolean canMoveLongRange) {
-    int row = startPosition.getRow();
-    int col = startPosition.getColumn();
-    ChessPiece piece = board.getPiece(startPosition);
-    ChessGame.TeamColor teamColor = piece.getTeamColor();
-
-    while (true) {
-      row += rowDirection;
-      col += colDirection;
-
-      ChessPosition endPosition = new ChessPosition(row, col);
-
-      if (!board.isRealPosition(endPosition)) {
-        break;
-      }
-
-      if (board.isOccupiedAt(endPosition)) {
-        ChessPiece otherPiece = board.getPiece(endPosition);
-        ChessGame.TeamColor otherPieceTeamColor = otherPiece.getTeamColor();
-        if (teamColor != otherPieceTeamColor) {
-          moves.add(new ChessMove(startPosition, endPosition, null));
-        }
-        break;
-      }
-      moves.add(new ChessMove(startPosition, endPosition, null));
-
-      if (!canMoveLongRange) {
-        break;
-      }
+
+  /**
+   * Finds the squares a piece can move to, ignoring whether the move leaves its king in check
+   *
+   * @param board The board the piece is on
+   * @param square The square the piece stands on
+   * @param teamColor The team the piece belongs to
+   * @return A bitboard of the squares the piece can move to
+   */
+  protected abstract long targets(ChessBoard board, int square, ChessGame.TeamColor teamColor);
+
+  @Override
+  public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition startPosition) {
+    MoveList moves = new MoveList(32);
+    addPieceMoves(board, startPosition.getSquare(), moves);
+    return moves.toChessMoves();
+  }
+
+  @Override
+  public void addPieceMoves(ChessBoard board, int square, MoveList moves) {
+    ChessGame.TeamColor teamColor = board.getPiece(ChessPosition.fromSquare(square)).getTeamColor();
+    long targets = targets(board, square, teamColor);
+    long occupied = board.getOccupiedBitboard();
+
+    while (targets != 0) {
+      int targetSquare = Long.numberOfTrailingZeros(targets);
+      targets &= targets - 1;
+
+      moves.add(PackedMove.of(square, targetSquare, captureFlag(occupied, targetSquare)));
     }
   }
+
+  /**
+   * @return {@link PackedMove#CAPTURE_FLAG} if the target square is occupied, otherwise zero
+   */
+  protected static int captureFlag(long occupied, int targetSquare) {
+    return (occupied & (1L << targetSquare)) != 0 ? PackedMove.CAPTURE_FLAG : 0;
+  }
 }
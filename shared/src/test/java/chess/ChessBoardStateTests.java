@@ -0,0 +1,178 @@
+package chess;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import chess.rules.PackedMove;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class ChessBoardStateTests {
+
+  @Test
+  public void positionsOffTheBoardAreRejected() {
+    ChessBoard board = new ChessBoard();
+    board.resetBoard();
+    ChessPiece rook = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK);
+
+    // (0, 9) and (2, 0) share a square index with real squares, so they must not alias onto them
+    assertThrows(IndexOutOfBoundsException.class, () -> board.getPiece(new ChessPosition(0, 9)));
+    assertThrows(IndexOutOfBoundsException.class, () -> board.getPiece(new ChessPosition(2, 0)));
+    assertThrows(
+        IndexOutOfBoundsException.class, () -> board.addPiece(new ChessPosition(0, 9), rook));
+    assertThrows(
+        IndexOutOfBoundsException.class, () -> board.addPiece(new ChessPosition(9, 1), rook));
+
+    ChessBoard untouched = new ChessBoard();
+    untouched.resetBoard();
+    assertEquals(untouched, board);
+  }
+
+  @Test
+  public void startingBoardCountsEveryPiece() {
+    ChessBoard board = new ChessBoard();
+    board.resetBoard();
+
+    for (ChessGame.TeamColor team : ChessGame.TeamColor.values()) {
+      assertEquals(16, board.getPieceCount(team));
+      assertEquals(8, board.getPieceCount(team, ChessPiece.PieceType.PAWN));
+      assertEquals(2, board.getPieceCount(team, ChessPiece.PieceType.KNIGHT));
+      assertEquals(1, board.getPieceCount(team, ChessPiece.PieceType.QUEEN));
+      assertEquals(4000, board.getMaterial(team));
+    }
+    assertEquals(0, board.getMaterialBalance());
+    assertEquals(4, board.getKingSquare(ChessGame.TeamColor.WHITE));
+    assertEquals(new ChessPosition(8, 5), board.getKingPosition(ChessGame.TeamColor.BLACK));
+  }
+
+  @Test
+  public void captureUpdatesCountsAndMaterialUntilUnmade() {
+    ChessBoard board = ChessGame.fromFen("4k3/8/8/3n4/4P3/8/8/4K3 w - - 0 1").getBoard();
+    List<Integer> before = snapshot(board);
+
+    int move = PackedMove.of(square(4, 5), square(5, 4), PackedMove.CAPTURE_FLAG);
+    int undo = board.makeMove(move);
+
+    assertEquals(0, board.getPieceCount(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT));
+    assertEquals(1, board.getPieceCount(ChessGame.TeamColor.BLACK));
+    assertEquals(0, board.getMaterial(ChessGame.TeamColor.BLACK));
+    assertEquals(1, board.getPieceCount(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+    assertEquals(100, board.getMaterialBalance());
+
+    board.unmakeMove(move, undo);
+    assertEquals(before, snapshot(board));
+    assertEquals(-220, board.getMaterialBalance());
+  }
+
+  @Test
+  public void capturingPromotionSwapsPieceKindsUntilUnmade() {
+    ChessBoard board = ChessGame.fromFen("1r2k3/P7/8/8/8/8/8/4K3 w - - 0 1").getBoard();
+    List<Integer> before = snapshot(board);
+
+    int move =
+        PackedMove.promotion(
+            square(7, 1), square(8, 2), ChessPiece.PieceType.QUEEN, PackedMove.CAPTURE_FLAG);
+    int undo = board.makeMove(move);
+
+    assertEquals(0, board.getPieceCount(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+    assertEquals(1, board.getPieceCount(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
+    assertEquals(2, board.getPieceCount(ChessGame.TeamColor.WHITE));
+    assertEquals(900, board.getMaterial(ChessGame.TeamColor.WHITE));
+    assertEquals(0, board.getPieceCount(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK));
+    assertEquals(0, board.getMaterial(ChessGame.TeamColor.BLACK));
+
+    board.unmakeMove(move, undo);
+    assertEquals(before, snapshot(board));
+    assertEquals(100, board.getMaterial(ChessGame.TeamColor.WHITE));
+    assertEquals(500, board.getMaterial(ChessGame.TeamColor.BLACK));
+  }
+
+  @Test
+  public void kingSquareFollowsTheKing() {
+    ChessBoard board = ChessGame.fromFen("4k3/8/8/8/8/8/8/4K3 w - - 0 1").getBoard();
+
+    int move = PackedMove.of(square(1, 5), square(2, 6), 0);
+    int undo = board.makeMove(move);
+    assertEquals(square(2, 6), board.getKingSquare(ChessGame.TeamColor.WHITE));
+    assertEquals(new ChessPosition(2, 6), board.getKingPosition(ChessGame.TeamColor.WHITE));
+
+    board.unmakeMove(move, undo);
+    assertEquals(square(1, 5), board.getKingSquare(ChessGame.TeamColor.WHITE));
+
+    board.addPiece(new ChessPosition(8, 5), null);
+    assertEquals(-1, board.getKingSquare(ChessGame.TeamColor.BLACK));
+    assertNull(board.getKingPosition(ChessGame.TeamColor.BLACK));
+    assertEquals(1, board.getPieceCount(ChessGame.TeamColor.WHITE));
+    assertEquals(0, board.getPieceCount(ChessGame.TeamColor.BLACK));
+  }
+
+  @Test
+  public void slidersAttackUntilTheFirstBlocker() {
+    // White rook a1, white bishop c1, black knight a4
+    ChessBoard board = ChessGame.fromFen("4k3/8/8/8/n7/8/7K/R1B5 w - - 0 1").getBoard();
+
+    assertTrue(board.isSquareAttacked(square(4, 1), ChessGame.TeamColor.WHITE));
+    assertFalse(board.isSquareAttacked(square(5, 1), ChessGame.TeamColor.WHITE));
+    assertTrue(board.isSquareAttacked(square(1, 3), ChessGame.TeamColor.WHITE));
+    assertFalse(board.isSquareAttacked(square(1, 4), ChessGame.TeamColor.WHITE));
+    assertTrue(board.isSquareAttacked(square(6, 8), ChessGame.TeamColor.WHITE));
+
+    // Treating c1 as empty lets the rook see past the bishop
+    long withoutBishop = board.getOccupiedBitboard() & ~(1L << square(1, 3));
+    assertTrue(board.isSquareAttacked(square(1, 4), ChessGame.TeamColor.WHITE, withoutBishop));
+
+    // Taking the knight off the a-file opens the rest of it
+    board.addPiece(new ChessPosition(4, 1), null);
+    assertTrue(board.isSquareAttacked(square(8, 1), ChessGame.TeamColor.WHITE));
+  }
+
+  @Test
+  public void pawnsOnlyAttackForward() {
+    ChessBoard board = ChessGame.fromFen("4k3/8/8/3p4/8/8/3P4/4K3 w - - 0 1").getBoard();
+
+    // The white pawn on d2 attacks c3 and e3, not c1, e1 or d3
+    assertTrue(board.isSquareAttacked(square(3, 3), ChessGame.TeamColor.WHITE));
+    assertTrue(board.isSquareAttacked(square(3, 5), ChessGame.TeamColor.WHITE));
+    assertFalse(board.isSquareAttacked(square(3, 4), ChessGame.TeamColor.WHITE));
+    assertFalse(board.isSquareAttacked(square(1, 3), ChessGame.TeamColor.WHITE));
+
+    // The black pawn on d5 attacks c4 and e4, not c6 or e6
+    assertTrue(board.isSquareAttacked(square(4, 3), ChessGame.TeamColor.BLACK));
+    assertTrue(board.isSquareAttacked(square(4, 5), ChessGame.TeamColor.BLACK));
+    assertFalse(board.isSquareAttacked(square(6, 3), ChessGame.TeamColor.BLACK));
+    assertFalse(board.isSquareAttacked(square(6, 5), ChessGame.TeamColor.BLACK));
+  }
+
+  @Test
+  public void knightsAndKingsAttackTheirNeighbors() {
+    ChessBoard board = ChessGame.fromFen("7k/8/8/8/3N4/8/8/K7 w - - 0 1").getBoard();
+
+    assertTrue(board.isSquareAttacked(square(6, 5), ChessGame.TeamColor.WHITE));
+    assertTrue(board.isSquareAttacked(square(2, 3), ChessGame.TeamColor.WHITE));
+    assertFalse(board.isSquareAttacked(square(5, 5), ChessGame.TeamColor.WHITE));
+    assertFalse(board.isSquareAttacked(square(6, 6), ChessGame.TeamColor.WHITE));
+
+    assertTrue(board.isSquareAttacked(square(2, 2), ChessGame.TeamColor.WHITE));
+    assertFalse(board.isSquareAttacked(square(3, 1), ChessGame.TeamColor.WHITE));
+    assertTrue(board.isSquareAttacked(square(7, 7), ChessGame.TeamColor.BLACK));
+    assertFalse(board.isSquareAttacked(square(6, 8), ChessGame.TeamColor.BLACK));
+  }
+
+  /** Every count, material total and king square the board tracks, in a fixed order. */
+  private static List<Integer> snapshot(ChessBoard board) {
+    List<Integer> values = new ArrayList<>();
+    for (ChessGame.TeamColor team : ChessGame.TeamColor.values()) {
+      for (ChessPiece.PieceType type : ChessPiece.PieceType.values()) {
+        values.add(board.getPieceCount(team, type));
+      }
+      values.add(board.getPieceCount(team));
+      values.add(board.getMaterial(team));
+      values.add(board.getKingSquare(team));
+    }
+    return values;
+  }
+
+  private static int square(int row, int col) {
+    return (row - 1) * 8 + (col - 1);
+  }
+}
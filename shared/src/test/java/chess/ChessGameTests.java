@@ -0,0 +1,299 @@
+package chess;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static passoff.chess.TestUtilities.loadBoard;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Test;
+
+public class ChessGameTests {
+
+  @Test
+  public void statusOfNewGameIsInProgress() {
+    assertEquals(GameStatus.IN_PROGRESS, new ChessGame().status());
+  }
+
+  @Test
+  public void statusFindsCheckmateAfterFoolsMate() throws InvalidMoveException {
+    ChessGame game = new ChessGame();
+    game.makeMove(move(2, 6, 3, 6));
+    game.makeMove(move(7, 5, 5, 5));
+    game.makeMove(move(2, 7, 4, 7));
+    assertEquals(GameStatus.IN_PROGRESS, game.status());
+
+    game.makeMove(move(8, 4, 4, 8));
+
+    assertEquals(GameStatus.CHECKMATE, game.status());
+    assertTrue(game.status().isGameOver());
+    assertTrue(game.isInCheckmate(ChessGame.TeamColor.WHITE));
+  }
+
+  @Test
+  public void statusFindsCheckAndStalemate() {
+    ChessGame game = new ChessGame();
+    game.setTeamTurn(ChessGame.TeamColor.BLACK);
+    game.setBoard(
+        loadBoard(
+            """
+            |k| | | | | | | |
+            | | |Q| | | | | |
+            | |K| | | | | | |
+            | | | | | | | | |
+            | | | | | | | | |
+            | | | | | | | | |
+            | | | | | | | | |
+            | | | | | | | | |
+            """));
+    assertEquals(GameStatus.STALEMATE, game.status());
+
+    game.getBoard().addPiece(new ChessPosition(7, 3), null);
+    game.getBoard()
+        .addPiece(
+            new ChessPosition(1, 1),
+            new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+    assertEquals(GameStatus.CHECK, game.status());
+  }
+
+  @Test
+  public void statusFindsInsufficientMaterial() {
+    ChessGame game = new ChessGame();
+    game.setBoard(
+        loadBoard(
+            """
+            | | | | |k| | | |
+            | | | | | | | | |
+            | | | | | | | | |
+            | | | | | | | | |
+            | | | | | | | | |
+            | | |B| | | | | |
+            | | | | | | | | |
+            | | | | |K| | | |
+            """));
+    assertEquals(GameStatus.INSUFFICIENT_MATERIAL, game.status());
+
+    // A second bishop on the other color can still force mate with help from the king
+    game.getBoard()
+        .addPiece(
+            new ChessPosition(3, 4),
+            new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
+    assertEquals(GameStatus.IN_PROGRESS, game.status());
+
+    game.getBoard()
+        .addPiece(
+            new ChessPosition(3, 4),
+            new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+    assertEquals(GameStatus.IN_PROGRESS, game.status());
+  }
+
+  @Test
+  public void undoAndRedoWalkTheHistory() throws InvalidMoveException {
+    ChessGame game = new ChessGame();
+    long startKey = game.getZobristKey();
+    game.makeMove(move(2, 5, 4, 5));
+    game.makeMove(move(7, 4, 5, 4));
+    game.makeMove(move(4, 5, 5, 4));
+    long afterCaptureKey = game.getZobristKey();
+
+    assertTrue(game.undoMove());
+    assertTrue(game.undoMove());
+    assertTrue(game.undoMove());
+    assertFalse(game.undoMove());
+    assertEquals(startKey, game.getZobristKey());
+    assertEquals(new ChessGame().getBoard(), game.getBoard());
+    assertEquals(ChessGame.TeamColor.WHITE, game.getTeamTurn());
+
+    while (game.redoMove()) {}
+    assertEquals(afterCaptureKey, game.getZobristKey());
+    assertEquals(ChessGame.TeamColor.BLACK, game.getTeamTurn());
+    assertEquals(move(4, 5, 5, 4), game.getHistory().getMove(2));
+  }
+
+  @Test
+  public void makingAMoveAfterUndoDropsTheRedoMoves() throws InvalidMoveException {
+    ChessGame game = new ChessGame();
+    game.makeMove(move(2, 5, 4, 5));
+    game.makeMove(move(7, 5, 5, 5));
+    game.undoMove();
+
+    game.makeMove(move(7, 4, 5, 4));
+
+    assertFalse(game.getHistory().canRedo());
+    assertEquals(2, game.getHistory().size());
+    assertEquals(move(7, 4, 5, 4), game.getHistory().getMove(1));
+  }
+
+  @Test
+  public void historySurvivesGsonRoundTrip() throws InvalidMoveException {
+    ChessGame game = new ChessGame();
+    game.makeMove(move(2, 5, 4, 5));
+    game.makeMove(move(7, 4, 5, 4));
+    game.makeMove(move(4, 5, 5, 4));
+    game.undoMove();
+
+    ChessGame loaded = new Gson().fromJson(new Gson().toJson(game), ChessGame.class);
+
+    assertEquals(game.getBoard(), loaded.getBoard());
+    assertEquals(2, loaded.getHistory().getPosition());
+    assertTrue(loaded.redoMove());
+    assertTrue(loaded.undoMove());
+    assertTrue(loaded.undoMove());
+    assertTrue(loaded.undoMove());
+    assertEquals(new ChessGame().getBoard(), loaded.getBoard());
+  }
+
+  @Test
+  public void gamesSavedWithoutHistoryStillLoad() {
+    String json = new Gson().toJson(new ChessGame()).replaceAll(",\\s*\"history\":\\{[^}]*}", "");
+    assertFalse(json.contains("history"));
+
+    ChessGame loaded = new Gson().fromJson(json, ChessGame.class);
+
+    assertEquals(new ChessGame().getBoard(), loaded.getBoard());
+    assertFalse(loaded.undoMove());
+  }
+
+  @Test
+  public void fenRoundTripsThroughAReusedBuilder() {
+    String[] positions = {
+      "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1",
+      "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w - - 0 1",
+      "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 b - - 0 37",
+    };
+
+    StringBuilder out = new StringBuilder();
+    for (String fen : positions) {
+      out.setLength(0);
+      assertEquals(fen, ChessGame.fromFen(new StringBuilder(fen)).toFen(out).toString());
+    }
+    assertEquals(new ChessGame().getBoard(), ChessGame.fromFen(positions[0]).getBoard());
+  }
+
+  @Test
+  public void fenAcceptsCastlingEnPassantAndMissingCounters() throws InvalidMoveException {
+    ChessGame game =
+        ChessGame.fromFen("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1");
+    assertEquals(ChessGame.TeamColor.BLACK, game.getTeamTurn());
+
+    game.makeMove(move(7, 5, 5, 5));
+    assertEquals("rnbqkbnr/pppp1ppp/8/4p3/4P3/8/PPPP1PPP/RNBQKBNR w - - 0 2", game.toFen());
+
+    assertEquals(1, ChessGame.fromFen("8/8/8/8/8/8/8/K6k w").getFullmoveNumber());
+  }
+
+  @Test
+  public void invalidFenIsRejected() {
+    String[] invalid = {
+      "",
+      "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP w - - 0 1",
+      "rnbqkbnr/pppppppp/9/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1",
+      "rnbqkbnr/ppppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1",
+      "rnbqkbnx/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1",
+      "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR x - - 0 1",
+      "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 0",
+      "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1 extra",
+      "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - \u0665 1",
+    };
+
+    for (String fen : invalid) {
+      assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen(fen), fen);
+    }
+  }
+
+  @Test
+  public void boardsSerializeAsFenAndStillReadTheOldGrid() {
+    String json = new Gson().toJson(new ChessGame());
+    assertTrue(json.contains("\"board\":\"rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR\""), json);
+
+    String legacyJson =
+        """
+        {"board":{"board":[
+          [{"pieceColor":"WHITE","type":"KING"}],[],[],[],[],[],[],
+          [null,null,null,null,{"pieceColor":"BLACK","type":"KING"}]
+        ]},"teamTurn":"BLACK"}
+        """;
+    ChessGame loaded = new Gson().fromJson(legacyJson, ChessGame.class);
+
+    assertEquals("4k3/8/8/8/8/8/8/K7 b - - 0 1", loaded.toFen());
+  }
+
+  @Test
+  public void shufflingKnightsDrawsByThreefoldRepetition() throws InvalidMoveException {
+    ChessGame game = new ChessGame();
+    for (int round = 0; round < 2; round++) {
+      assertEquals(round + 1, game.getRepetitionCount());
+      shuffleKnights(game);
+    }
+
+    assertEquals(3, game.getRepetitionCount());
+    assertEquals(GameStatus.THREEFOLD_REPETITION, game.status());
+    assertEquals(8, game.getHalfmoveClock());
+
+    game.undoMove();
+    assertEquals(GameStatus.IN_PROGRESS, game.status());
+    assertEquals(7, game.getHalfmoveClock());
+  }
+
+  @Test
+  public void repetitionsCountedBeforeSavingStillCountAfterLoading() throws InvalidMoveException {
+    ChessGame game = new ChessGame();
+    shuffleKnights(game);
+    shuffleKnights(game);
+    game.undoMove();
+
+    ChessGame loaded = new Gson().fromJson(new Gson().toJson(game), ChessGame.class);
+    assertEquals(7, loaded.getHalfmoveClock());
+    loaded.makeMove(move(6, 1, 8, 2));
+
+    assertEquals(GameStatus.THREEFOLD_REPETITION, loaded.status());
+  }
+
+  @Test
+  public void capturesAndPawnMovesResetTheHalfmoveClock() throws InvalidMoveException {
+    ChessGame game = ChessGame.fromFen("4k3/8/8/8/8/8/4P3/R3K3 w - - 98 60");
+    game.makeMove(move(1, 1, 1, 2));
+    assertEquals(99, game.getHalfmoveClock());
+    assertEquals(GameStatus.IN_PROGRESS, game.status());
+
+    game.makeMove(move(8, 5, 8, 4));
+    assertEquals(GameStatus.FIFTY_MOVE_RULE, game.status());
+    assertEquals("3k4/8/8/8/8/8/4P3/1R2K3 w - - 100 61", game.toFen());
+
+    game.undoMove();
+    game.undoMove();
+    game.makeMove(move(2, 5, 3, 5));
+    assertEquals(0, game.getHalfmoveClock());
+    assertTrue(game.undoMove());
+    assertEquals(98, game.getHalfmoveClock());
+  }
+
+  @Test
+  public void settingABoardClearsACachedDraw() throws InvalidMoveException {
+    ChessGame fiftyMoves = ChessGame.fromFen("4k3/8/8/8/8/8/8/R3K3 w - - 99 60");
+    fiftyMoves.makeMove(move(1, 1, 1, 2));
+    assertEquals(GameStatus.FIFTY_MOVE_RULE, fiftyMoves.status());
+
+    // The same position and turn hash to the same key, so only setBoard can tell the cache apart
+    fiftyMoves.setBoard(new ChessBoard(fiftyMoves.getBoard()));
+    assertEquals(GameStatus.IN_PROGRESS, fiftyMoves.status());
+
+    ChessGame repeated = new ChessGame();
+    shuffleKnights(repeated);
+    shuffleKnights(repeated);
+    assertEquals(GameStatus.THREEFOLD_REPETITION, repeated.status());
+
+    repeated.setBoard(new ChessBoard(repeated.getBoard()));
+    assertEquals(GameStatus.IN_PROGRESS, repeated.status());
+  }
+
+  private static void shuffleKnights(ChessGame game) throws InvalidMoveException {
+    game.makeMove(move(1, 2, 3, 1));
+    game.makeMove(move(8, 2, 6, 1));
+    game.makeMove(move(3, 1, 1, 2));
+    game.makeMove(move(6, 1, 8, 2));
+  }
+
+  private static ChessMove move(int startRow, int startCol, int endRow, int endCol) {
+    return new ChessMove(
+        new ChessPosition(startRow, startCol), new ChessPosition(endRow, endCol), null);
+  }
+}
@@ -0,0 +1,144 @@
+package chess;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import chess.rules.MoveList;
+import chess.rules.PackedMove;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+public class ZobristTests {
+
+  @Test
+  public void transposedMoveOrdersReachTheSameKey() throws InvalidMoveException {
+    ChessGame kingsideFirst = new ChessGame();
+    kingsideFirst.makeMove(move(1, 7, 3, 6));
+    kingsideFirst.makeMove(move(8, 7, 6, 6));
+    kingsideFirst.makeMove(move(1, 2, 3, 3));
+    kingsideFirst.makeMove(move(8, 2, 6, 3));
+
+    ChessGame queensideFirst = new ChessGame();
+    queensideFirst.makeMove(move(1, 2, 3, 3));
+    queensideFirst.makeMove(move(8, 2, 6, 3));
+    queensideFirst.makeMove(move(1, 7, 3, 6));
+    queensideFirst.makeMove(move(8, 7, 6, 6));
+
+    assertEquals(kingsideFirst.getZobristKey(), queensideFirst.getZobristKey());
+    assertEquals(kingsideFirst.getBoard(), queensideFirst.getBoard());
+    assertEquals(kingsideFirst.getBoard().hashCode(), queensideFirst.getBoard().hashCode());
+    assertNotEquals(new ChessGame().getZobristKey(), kingsideFirst.getZobristKey());
+  }
+
+  @Test
+  public void sidesToMoveHaveDifferentKeys() {
+    ChessGame whiteToMove = new ChessGame();
+    ChessGame blackToMove = new ChessGame();
+    blackToMove.setTeamTurn(ChessGame.TeamColor.BLACK);
+
+    assertEquals(whiteToMove.getBoard().getZobristKey(), blackToMove.getBoard().getZobristKey());
+    assertNotEquals(whiteToMove.getZobristKey(), blackToMove.getZobristKey());
+  }
+
+  @Test
+  public void makingAndUnmakingEveryMoveRestoresTheKey() {
+    Random random = new Random(5);
+    MoveList moves = new MoveList();
+
+    for (int gameNumber = 0; gameNumber < 20; gameNumber++) {
+      ChessGame game = new ChessGame();
+      ChessBoard board = game.getBoard();
+      for (int ply = 0; ply < 150; ply++) {
+        moves.clear();
+        game.generateValidMoves(moves);
+        if (moves.isEmpty()) {
+          break;
+        }
+
+        long keyBefore = board.getZobristKey();
+        long pawnKeyBefore = board.getPawnKey();
+        for (int i = 0; i < moves.size(); i++) {
+          int move = moves.get(i);
+          String context = "undoing " + PackedMove.toChessMove(move);
+          int undo = board.makeMove(move);
+          assertNotEquals(keyBefore, board.getZobristKey(), context);
+          board.unmakeMove(move, undo);
+
+          assertEquals(keyBefore, board.getZobristKey(), context);
+          assertEquals(pawnKeyBefore, board.getPawnKey(), context);
+        }
+
+        board.makeMove(moves.get(random.nextInt(moves.size())));
+        game.switchTeamTurn();
+      }
+    }
+  }
+
+  @Test
+  public void incrementalKeyMatchesRecomputationThroughRandomGames() {
+    Random random = new Random(6);
+    MoveList moves = new MoveList();
+
+    for (int gameNumber = 0; gameNumber < 50; gameNumber++) {
+      ChessGame game = new ChessGame();
+      ChessBoard board = game.getBoard();
+      for (int ply = 0; ply < 200; ply++) {
+        moves.clear();
+        game.generateValidMoves(moves);
+        if (moves.isEmpty()) {
+          break;
+        }
+        int move = moves.get(random.nextInt(moves.size()));
+        board.makeMove(move);
+        game.switchTeamTurn();
+
+        String context = "after " + PackedMove.toChessMove(move);
+        assertEquals(keyFromScratch(board), board.getZobristKey(), context);
+        assertEquals(pawnKeyFromScratch(board), board.getPawnKey(), context);
+        assertEquals(board.getZobristKey(), new ChessBoard(board).getZobristKey(), context);
+      }
+    }
+  }
+
+  @Test
+  public void boardsBuiltPieceByPieceMatchTheStartingKey() {
+    ChessBoard reset = new ChessBoard();
+    reset.resetBoard();
+
+    ChessBoard byHand = new ChessBoard();
+    for (int row = 8; row >= 1; row--) {
+      for (int col = 8; col >= 1; col--) {
+        byHand.addPiece(new ChessPosition(row, col), reset.getPiece(new ChessPosition(row, col)));
+      }
+    }
+
+    assertEquals(reset.getZobristKey(), byHand.getZobristKey());
+    assertEquals(keyFromScratch(reset), reset.getZobristKey());
+  }
+
+  private static long keyFromScratch(ChessBoard board) {
+    long key = 0;
+    for (int square = 0; square < 64; square++) {
+      ChessPiece piece = board.getPiece(ChessPosition.fromSquare(square));
+      if (piece != null) {
+        key ^= Zobrist.pieceKey(piece.getIndex(), square);
+      }
+    }
+    return key;
+  }
+
+  private static long pawnKeyFromScratch(ChessBoard board) {
+    long key = 0;
+    for (int square = 0; square < 64; square++) {
+      ChessPiece piece = board.getPiece(ChessPosition.fromSquare(square));
+      if (piece != null && piece.getPieceType() == ChessPiece.PieceType.PAWN) {
+        key ^= Zobrist.pieceKey(piece.getIndex(), square);
+      }
+    }
+    return key;
+  }
+
+  private static ChessMove move(int startRow, int startCol, int endRow, int endCol) {
+    return new ChessMove(
+        new ChessPosition(startRow, startCol), new ChessPosition(endRow, endCol), null);
+  }
+}
@@ -0,0 +1,62 @@
+package chess.engine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import chess.ChessGame;
+import chess.rules.MoveList;
+import chess.rules.PackedMove;
+import org.junit.jupiter.api.Test;
+
+public class MoveOrdererTests {
+
+  private static final int B2 = 9;
+  private static final int C3 = 18;
+  private static final int D1 = 3;
+  private static final int D4 = 27;
+  private static final int E2 = 12;
+  private static final int H2 = 15;
+  private static final int H3 = 23;
+
+  @Test
+  public void capturesComeMostValuableVictimFirstThenCheapestAttacker() {
+    // White queen d1 and pawn c3 can both take the queen on d4; the knight on b2 can take the pawn
+    ChessGame game = ChessGame.fromFen("4k3/8/8/8/3q4/2P5/1n5P/3QK3 w - - 0 1");
+    MoveList moves = new MoveList();
+    moves.add(PackedMove.of(H2, H3, 0));
+    moves.add(PackedMove.of(D1, B2, PackedMove.CAPTURE_FLAG));
+    moves.add(PackedMove.of(D1, D4, PackedMove.CAPTURE_FLAG));
+    moves.add(PackedMove.of(C3, D4, PackedMove.CAPTURE_FLAG));
+
+    MoveOrderer orderer = new MoveOrderer();
+    orderer.scoreMoves(game.getBoard(), ChessGame.TeamColor.WHITE, moves, 0, 0);
+
+    assertEquals(PackedMove.of(C3, D4, PackedMove.CAPTURE_FLAG), orderer.pickMove(moves, 0, 0));
+    assertEquals(PackedMove.of(D1, D4, PackedMove.CAPTURE_FLAG), orderer.pickMove(moves, 0, 1));
+    assertEquals(PackedMove.of(D1, B2, PackedMove.CAPTURE_FLAG), orderer.pickMove(moves, 0, 2));
+    assertEquals(PackedMove.of(H2, H3, 0), orderer.pickMove(moves, 0, 3));
+  }
+
+  @Test
+  public void hashMoveThenKillersLeadTheQuietMoves() {
+    ChessGame game = ChessGame.fromFen("4k3/8/8/8/8/8/7P/3QK3 w - - 0 1");
+    MoveList moves = new MoveList();
+    int quiet = PackedMove.of(H2, H3, 0);
+    int killer = PackedMove.of(D1, E2, 0);
+    int hash = PackedMove.of(D1, D4, 0);
+    moves.add(quiet);
+    moves.add(killer);
+    moves.add(hash);
+
+    MoveOrderer orderer = new MoveOrderer();
+    orderer.scoreMoves(game.getBoard(), ChessGame.TeamColor.WHITE, moves, 3, 0);
+    orderer.pickMove(moves, 3, 0);
+    orderer.pickMove(moves, 3, 1);
+    orderer.recordCutoff(ChessGame.TeamColor.WHITE, killer, 3, 1, 4);
+
+    orderer.scoreMoves(game.getBoard(), ChessGame.TeamColor.WHITE, moves, 3, hash);
+    assertEquals(hash, orderer.pickMove(moves, 3, 0));
+    assertEquals(killer, orderer.pickMove(moves, 3, 1));
+    assertEquals(quiet, orderer.pickMove(moves, 3, 2));
+    assertEquals(1, orderer.getCutoffs());
+  }
+}
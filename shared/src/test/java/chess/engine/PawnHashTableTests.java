@@ -0,0 +1,91 @@
+package chess.engine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPosition;
+import org.junit.jupiter.api.Test;
+
+public class PawnHashTableTests {
+
+  @Test
+  public void pawnKeyChangesOnlyWhenPawnsMove() {
+    ChessBoard board = new ChessGame().getBoard();
+    long startKey = board.getPawnKey();
+
+    board.movePiece(new ChessPosition(1, 2), new ChessPosition(3, 3), null);
+    assertEquals(startKey, board.getPawnKey());
+
+    board.movePiece(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+    assertNotEquals(startKey, board.getPawnKey());
+
+    board.movePiece(new ChessPosition(4, 5), new ChessPosition(2, 5), null);
+    assertEquals(startKey, board.getPawnKey());
+  }
+
+  @Test
+  public void findsPassedPawns() {
+    ChessBoard board = ChessGame.fromFen("4k3/4p3/8/P2P4/8/8/7p/4K3 w - - 0 1").getBoard();
+    PawnHashTable table = new PawnHashTable();
+
+    long passed = table.passedPawns(table.probe(board));
+
+    assertEquals(square(5, 1) | square(2, 8), passed);
+  }
+
+  @Test
+  public void penalizesDoubledAndIsolatedPawns() {
+    ChessBoard healthy = ChessGame.fromFen("4k3/pp6/8/8/8/8/PP6/4K3 w - - 0 1").getBoard();
+    ChessBoard doubled = ChessGame.fromFen("4k3/pp6/8/8/8/P7/P7/4K3 w - - 0 1").getBoard();
+    ChessBoard isolated = ChessGame.fromFen("4k3/pp6/8/8/8/8/P1P5/4K3 w - - 0 1").getBoard();
+    PawnHashTable table = new PawnHashTable();
+
+    int healthyScore = table.midgame(table.probe(healthy));
+    assertEquals(0, healthyScore);
+    assertTrue(table.midgame(table.probe(doubled)) < healthyScore);
+    assertTrue(table.midgame(table.probe(isolated)) < healthyScore);
+  }
+
+  @Test
+  public void answersARepeatedStructureFromTheCache() {
+    ChessBoard board = new ChessGame().getBoard();
+    PawnHashTable table = new PawnHashTable();
+
+    int first = table.probe(board);
+    board.movePiece(new ChessPosition(1, 7), new ChessPosition(3, 6), null);
+    int second = table.probe(board);
+
+    assertEquals(first, second);
+    assertEquals(2, table.getProbes());
+    assertEquals(1, table.getHits());
+    assertEquals(0.5, table.getHitRate());
+
+    table.clear();
+    assertEquals(0, table.getProbes());
+    table.probe(board);
+    assertEquals(0, table.getHits());
+  }
+
+  @Test
+  public void answersMostEvaluationsInAMiddlegameSearch() {
+    ChessGame game =
+        ChessGame.fromFen("r2q1rk1/1b1nbppp/p2ppn2/1p6/3NPP2/1BN1B3/PPP1Q1PP/R4RK1 w - - 0 1");
+    PieceSquareEvaluator evaluator = new PieceSquareEvaluator();
+
+    new SearchEngine(evaluator).search(game, SearchLimits.nodes(300_000));
+
+    PawnHashTable table = evaluator.getPawnHashTable();
+    assertTrue(table.getProbes() > 0);
+    assertTrue(table.getHitRate() > 0.95, "hit rate " + table.getHitRate());
+  }
+
+  @Test
+  public void rejectsAnEmptySize() {
+    assertThrows(IllegalArgumentException.class, () -> new PawnHashTable(0));
+  }
+
+  private static long square(int row, int col) {
+    return 1L << new ChessPosition(row, col).getSquare();
+  }
+}
@@ -0,0 +1,57 @@
+package chess.engine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import chess.ChessGame;
+import chess.rules.MoveList;
+import chess.rules.PackedMove;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+public class PieceSquareEvaluatorTests {
+
+  private final PieceSquareEvaluator evaluator = new PieceSquareEvaluator();
+
+  @Test
+  public void startingPositionIsEven() {
+    ChessGame game = new ChessGame();
+
+    assertEquals(0, evaluator.evaluate(game.getBoard(), ChessGame.TeamColor.WHITE));
+    assertEquals(0, evaluator.evaluate(game.getBoard(), ChessGame.TeamColor.BLACK));
+  }
+
+  @Test
+  public void centralizedKnightScoresHigher() {
+    ChessGame rim = ChessGame.fromFen("4k3/8/8/8/8/8/8/N3K3 w - - 0 1");
+    ChessGame center = ChessGame.fromFen("4k3/8/8/8/3N4/8/8/4K3 w - - 0 1");
+
+    assertTrue(
+        evaluator.evaluate(center.getBoard(), ChessGame.TeamColor.WHITE)
+            > evaluator.evaluate(rim.getBoard(), ChessGame.TeamColor.WHITE));
+  }
+
+  @Test
+  public void incrementalScoreMatchesRecomputationThroughRandomGames() {
+    Random random = new Random(23);
+    MoveList moves = new MoveList();
+
+    for (int gameNumber = 0; gameNumber < 50; gameNumber++) {
+      ChessGame game = new ChessGame();
+      for (int ply = 0; ply < 200; ply++) {
+        moves.clear();
+        game.generateValidMoves(moves);
+        if (moves.isEmpty()) {
+          break;
+        }
+        int move = moves.get(random.nextInt(moves.size()));
+        game.getBoard().makeMove(move);
+        game.switchTeamTurn();
+
+        assertEquals(
+            PieceSquareEvaluator.evaluateFromScratch(game.getBoard(), game.getTeamTurn()),
+            evaluator.evaluate(game.getBoard(), game.getTeamTurn()),
+            "after " + PackedMove.toChessMove(move));
+      }
+    }
+  }
+}
@@ -0,0 +1,159 @@
+package chess.engine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import org.junit.jupiter.api.Test;
+
+public class SearchEngineTests {
+
+  @Test
+  public void findsMateInOne() {
+    ChessGame game = ChessGame.fromFen("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+
+    SearchResult result = new SearchEngine().search(game, SearchLimits.depth(4));
+
+    assertEquals(move(1, 1, 8, 1), result.bestMove());
+    assertTrue(result.isMate());
+    assertEquals(1, result.mateInMoves());
+    assertEquals(1, result.principalVariation().size());
+  }
+
+  @Test
+  public void capturesAnUndefendedQueen() {
+    ChessGame game = ChessGame.fromFen("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1");
+
+    SearchResult result = new SearchEngine().search(game, SearchLimits.depth(3));
+
+    assertEquals(move(2, 4, 5, 4), result.bestMove());
+    assertTrue(result.score() > 0);
+    assertEquals(3, result.depth());
+    assertEquals(result.bestMove(), result.principalVariation().get(0));
+  }
+
+  @Test
+  public void searchLeavesTheGameUnchanged() {
+    ChessGame game = new ChessGame();
+    String fenBefore = game.toFen();
+
+    new SearchEngine().search(game, SearchLimits.depth(3));
+
+    assertEquals(fenBefore, game.toFen());
+  }
+
+  @Test
+  public void stopsAtTheNodeLimit() {
+    SearchResult result = new SearchEngine().search(new ChessGame(), SearchLimits.nodes(5000));
+
+    assertTrue(result.nodes() <= 5000);
+    assertNotNull(result.bestMove());
+  }
+
+  @Test
+  public void stopsWhenAskedFromAnotherThread() throws InterruptedException {
+    SearchEngine engine = new SearchEngine();
+    SearchResult[] result = new SearchResult[1];
+    Thread searcher =
+        new Thread(() -> result[0] = engine.search(new ChessGame(), SearchLimits.INFINITE));
+    searcher.start();
+
+    Thread.sleep(100);
+    for (int attempts = 0; searcher.isAlive() && attempts < 100; attempts++) {
+      engine.stop();
+      searcher.join(50);
+    }
+
+    assertFalse(searcher.isAlive());
+    assertNotNull(result[0].bestMove());
+  }
+
+  @Test
+  public void scoresARepeatedPositionAsADraw() throws InvalidMoveException {
+    ChessGame game = ChessGame.fromFen("7k/8/8/8/8/8/8/K6q w - - 0 1");
+    SearchEngine engine = new SearchEngine();
+    assertTrue(engine.search(game, SearchLimits.depth(2)).score() < 0);
+
+    game.makeMove(move(1, 1, 2, 1));
+    game.makeMove(move(1, 8, 2, 8));
+    game.makeMove(move(2, 1, 1, 1));
+
+    SearchResult result = engine.search(game, SearchLimits.depth(1));
+    assertNotEquals(move(2, 8, 1, 8), result.bestMove());
+  }
+
+  @Test
+  public void hasNoMoveWhenCheckmated() {
+    ChessGame game = ChessGame.fromFen("R5k1/5ppp/8/8/8/8/8/6K1 b - - 0 1");
+
+    SearchResult result = new SearchEngine().search(game, SearchLimits.depth(3));
+
+    assertNull(result.bestMove());
+    assertTrue(result.principalVariation().isEmpty());
+    assertEquals(-SearchEngine.MATE_SCORE, result.score());
+  }
+
+  @Test
+  public void parallelSearchAgreesWithOneThread() {
+    ChessGame game = ChessGame.fromFen("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1");
+
+    try (ParallelSearch search = new ParallelSearch(4)) {
+      SearchResult result = search.search(game, SearchLimits.depth(4));
+
+      assertEquals(move(2, 4, 5, 4), result.bestMove());
+      assertTrue(result.depth() >= 4);
+      assertEquals(4, search.getThreads());
+    }
+  }
+
+  @Test
+  public void parallelSearchStopsWhenAsked() throws InterruptedException {
+    try (ParallelSearch search = new ParallelSearch(3)) {
+      SearchResult[] result = new SearchResult[1];
+      Thread searcher =
+          new Thread(() -> result[0] = search.search(new ChessGame(), SearchLimits.INFINITE));
+      searcher.start();
+
+      Thread.sleep(100);
+      for (int attempts = 0; searcher.isAlive() && attempts < 100; attempts++) {
+        search.stop();
+        searcher.join(50);
+      }
+
+      assertFalse(searcher.isAlive());
+      assertNotNull(result[0].bestMove());
+    }
+  }
+
+  @Test
+  public void doesNotTakeADefendedPawnWithTheQueenAtTheHorizon() {
+    ChessGame game = ChessGame.fromFen("4k3/8/4p3/3p4/8/8/8/3QK3 w - - 0 1");
+
+    SearchResult result = new SearchEngine().search(game, SearchLimits.depth(1));
+
+    assertNotEquals(move(1, 4, 5, 4), result.bestMove());
+  }
+
+  @Test
+  public void moveOrderingCutsOffOnTheFirstMoveMostOfTheTime() {
+    ChessGame game =
+        ChessGame.fromFen(
+            "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 1");
+    SearchEngine engine = new SearchEngine();
+
+    engine.search(game, SearchLimits.depth(5));
+
+    MoveOrderer orderer = engine.getMoveOrderer();
+    assertTrue(orderer.getCutoffs() > 0);
+    assertTrue(orderer.getFirstMoveCutoffRate() > 0.5);
+    assertTrue(orderer.getCutoffs(MoveOrderer.Source.CAPTURE) > 0);
+    assertTrue(orderer.getCutoffs(MoveOrderer.Source.HASH) > 0);
+  }
+
+  private static ChessMove move(int startRow, int startCol, int endRow, int endCol) {
+    return new ChessMove(
+        new ChessPosition(startRow, startCol), new ChessPosition(endRow, endCol), null);
+  }
+}
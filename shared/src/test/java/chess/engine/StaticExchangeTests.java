@@ -0,0 +1,94 @@
+package chess.engine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.rules.MoveList;
+import chess.rules.PackedMove;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+public class StaticExchangeTests {
+
+  @Test
+  public void pawnTakingADefendedKnightWinsTheDifference() {
+    ChessBoard board = ChessGame.fromFen("4k3/8/5p2/4n3/3P4/8/8/4K3 w - - 0 1").getBoard();
+
+    assertEquals(220, StaticExchange.evaluate(board, move(4, 4, 5, 5)));
+  }
+
+  @Test
+  public void queenTakingADefendedPawnLosesTheQueen() {
+    ChessBoard board = ChessGame.fromFen("4k3/8/4p3/3p4/8/8/8/3QK3 w - - 0 1").getBoard();
+
+    assertEquals(-800, StaticExchange.evaluate(board, move(1, 4, 5, 4)));
+  }
+
+  @Test
+  public void rookBehindTheAttackerJoinsTheExchange() {
+    ChessBoard alone = ChessGame.fromFen("3rk3/8/8/3p4/8/8/3R4/4K3 w - - 0 1").getBoard();
+    ChessBoard doubled = ChessGame.fromFen("3rk3/8/8/3p4/8/8/3R4/3RK3 w - - 0 1").getBoard();
+
+    assertEquals(-400, StaticExchange.evaluate(alone, move(2, 4, 5, 4)));
+    assertEquals(100, StaticExchange.evaluate(doubled, move(2, 4, 5, 4)));
+  }
+
+  @Test
+  public void kingDoesNotTakeADefendedPiece() {
+    ChessBoard board = ChessGame.fromFen("4k3/8/8/8/8/4p3/3pK3/8 w - - 0 1").getBoard();
+
+    assertFalse(StaticExchange.isHanging(board, new ChessPosition(2, 4)));
+    assertTrue(StaticExchange.isHanging(board, new ChessPosition(3, 5)));
+  }
+
+  @Test
+  public void findsUndefendedPiecesUnderAttack() {
+    ChessBoard board = ChessGame.fromFen("4k3/8/2p5/1n5b/8/8/8/1R2K2R w - - 0 1").getBoard();
+
+    List<ChessPosition> hanging =
+        StaticExchange.findHangingPieces(board, ChessGame.TeamColor.BLACK);
+
+    assertEquals(List.of(new ChessPosition(5, 8)), hanging);
+    assertTrue(StaticExchange.findHangingPieces(board, ChessGame.TeamColor.WHITE).isEmpty());
+  }
+
+  @Test
+  public void thresholdTestAgreesWithTheFullEvaluationThroughRandomGames() {
+    Random random = new Random(24);
+    MoveList moves = new MoveList();
+    int[] thresholds = {-900, -330, -100, -1, 0, 1, 100, 220, 500};
+
+    for (int gameNumber = 0; gameNumber < 50; gameNumber++) {
+      ChessGame game = new ChessGame();
+      for (int ply = 0; ply < 150; ply++) {
+        moves.clear();
+        game.generateValidMoves(moves);
+        if (moves.isEmpty()) {
+          break;
+        }
+        ChessBoard board = game.getBoard();
+        for (int i = 0; i < moves.size(); i++) {
+          int move = moves.get(i);
+          int gain = StaticExchange.evaluate(board, move);
+          for (int threshold : thresholds) {
+            assertEquals(
+                gain >= threshold,
+                StaticExchange.isAtLeast(board, move, threshold),
+                game.toFen() + " " + PackedMove.toChessMove(move) + " at " + threshold);
+          }
+        }
+        board.makeMove(moves.get(random.nextInt(moves.size())));
+        game.switchTeamTurn();
+      }
+    }
+  }
+
+  private static ChessMove move(int startRow, int startCol, int endRow, int endCol) {
+    return new ChessMove(
+        new ChessPosition(startRow, startCol), new ChessPosition(endRow, endCol), null);
+  }
+}
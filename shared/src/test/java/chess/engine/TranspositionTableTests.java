@@ -0,0 +1,80 @@
+package chess.engine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import chess.ChessGame;
+import org.junit.jupiter.api.Test;
+
+public class TranspositionTableTests {
+
+  @Test
+  public void storedEntriesReadBack() {
+    for (boolean offHeap : new boolean[] {false, true}) {
+      TranspositionTable table = new TranspositionTable(1, ReplacementPolicy.AGED, offHeap);
+      long key = 0x1234_5678_9ABC_DEF0L;
+
+      table.store(key, 0x8123, -29990, 7, TranspositionTable.LOWER_BOUND);
+      long entry = table.probe(key);
+
+      assertNotEquals(TranspositionTable.MISS, entry);
+      assertEquals(0x8123, TranspositionTable.move(entry));
+      assertEquals(-29990, TranspositionTable.score(entry));
+      assertEquals(7, TranspositionTable.depth(entry));
+      assertEquals(TranspositionTable.LOWER_BOUND, TranspositionTable.bound(entry));
+      assertEquals(TranspositionTable.MISS, table.probe(key ^ (1L << 40)));
+    }
+  }
+
+  @Test
+  public void sizeIsAPowerOfTwoWithinTheBudget() {
+    TranspositionTable table = new TranspositionTable(3);
+
+    assertEquals(2L * 1024 * 1024, table.getSizeBytes());
+    assertEquals(table.getSizeBytes() / 16, table.getCapacity());
+  }
+
+  @Test
+  public void depthPreferredKeepsDeeperEntries() {
+    TranspositionTable table = new TranspositionTable(1, ReplacementPolicy.DEPTH_PREFERRED, false);
+    long bucketStride = table.getCapacity() / 2;
+
+    table.store(1, 0, 10, 8, TranspositionTable.EXACT);
+    table.store(1 + bucketStride, 0, 20, 6, TranspositionTable.EXACT);
+    table.store(1 + 2 * bucketStride, 0, 30, 2, TranspositionTable.EXACT);
+
+    assertNotEquals(TranspositionTable.MISS, table.probe(1));
+    assertNotEquals(TranspositionTable.MISS, table.probe(1 + bucketStride));
+    assertEquals(TranspositionTable.MISS, table.probe(1 + 2 * bucketStride));
+
+    table.newSearch();
+    table.store(1 + 2 * bucketStride, 0, 30, 2, TranspositionTable.EXACT);
+    assertNotEquals(TranspositionTable.MISS, table.probe(1 + 2 * bucketStride));
+  }
+
+  @Test
+  public void sameKeyKeepsItsMoveWhenStoredWithout() {
+    TranspositionTable table = new TranspositionTable(1);
+
+    table.store(42, 0x0555, 5, 3, TranspositionTable.EXACT);
+    table.store(42, 0, -5, 4, TranspositionTable.UPPER_BOUND);
+
+    long entry = table.probe(42);
+    assertEquals(0x0555, TranspositionTable.move(entry));
+    assertEquals(4, TranspositionTable.depth(entry));
+  }
+
+  @Test
+  public void countersTrackHitsAndFill() {
+    TranspositionTable table = new TranspositionTable(1);
+    new SearchEngine(new MaterialEvaluator(), table).search(new ChessGame(), SearchLimits.depth(4));
+
+    assertTrue(table.getProbes() > 0);
+    assertTrue(table.getHits() > 0);
+    assertTrue(table.getHitRate() > 0 && table.getHitRate() < 1);
+    assertTrue(table.getFillRate() > 0);
+
+    table.clear();
+    assertEquals(0, table.getProbes());
+    assertEquals(0, table.getFillRate());
+  }
+}
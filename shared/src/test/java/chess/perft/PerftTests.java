@@ -0,0 +1,75 @@
+package chess.perft;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import chess.ChessGame;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+public class PerftTests {
+  private static final int QUICK_DEPTH = 3;
+
+  @Test
+  public void shallowCountsMatchReferenceValues() {
+    Perft perft = new Perft();
+
+    for (PerftPosition position : PerftPosition.REFERENCE_POSITIONS) {
+      for (int depth = 1; depth <= Math.min(QUICK_DEPTH, position.maxDepth()); depth++) {
+        assertEquals(
+            position.expectedCount(depth),
+            perft.count(position.createGame(), depth),
+            String.format("%s at depth %d", position.name(), depth));
+      }
+    }
+  }
+
+  @Test
+  public void countingLeavesTheGameUnchanged() {
+    ChessGame game = new ChessGame();
+    String boardBefore = game.getBoard().toString();
+    long keyBefore = game.getZobristKey();
+
+    new Perft().count(game, 3);
+
+    assertEquals(boardBefore, game.getBoard().toString());
+    assertEquals(keyBefore, game.getZobristKey());
+    assertEquals(ChessGame.TeamColor.WHITE, game.getTeamTurn());
+  }
+
+  @Test
+  public void parallelCountsMatchReferenceValues() {
+    for (int splitPlies = 1; splitPlies <= 2; splitPlies++) {
+      try (ParallelPerft perft = new ParallelPerft(4, splitPlies)) {
+        for (PerftPosition position : PerftPosition.REFERENCE_POSITIONS) {
+          int depth = Math.min(QUICK_DEPTH, position.maxDepth());
+          assertEquals(
+              position.expectedCount(depth),
+              perft.count(position.createGame(), depth),
+              String.format("%s at depth %d split %d plies", position.name(), depth, splitPlies));
+        }
+      }
+    }
+  }
+
+  @Test
+  @Tag("perft")
+  public void fullDepthCountsMatchReferenceValues() {
+    Perft perft = new Perft();
+
+    for (PerftPosition position : PerftPosition.REFERENCE_POSITIONS) {
+      for (int depth = 1; depth <= position.maxDepth(); depth++) {
+        long start = System.nanoTime();
+        long nodes = perft.count(position.createGame(), depth);
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf(
+            "%s depth %d: %,d nodes, %,.0f nodes/s%n",
+            position.name(), depth, nodes, nodes / (elapsed / 1e9));
+        assertEquals(
+            position.expectedCount(depth),
+            nodes,
+            String.format("%s at depth %d", position.name(), depth));
+      }
+    }
+  }
+}
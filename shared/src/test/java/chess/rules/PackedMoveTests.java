@@ -0,0 +1,111 @@
+package chess.rules;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class PackedMoveTests {
+
+  @Test
+  public void squaresAndFlagsRoundTripForEveryPair() {
+    for (int start = 0; start < 64; start++) {
+      for (int end = 0; end < 64; end++) {
+        int quiet = PackedMove.of(start, end, 0);
+        int capture = PackedMove.of(start, end, PackedMove.CAPTURE_FLAG);
+
+        assertEquals(start, PackedMove.startSquare(quiet));
+        assertEquals(end, PackedMove.endSquare(quiet));
+        assertFalse(PackedMove.isCapture(quiet));
+        assertFalse(PackedMove.isPromotion(quiet));
+        assertNull(PackedMove.promotionPiece(quiet));
+
+        assertEquals(start, PackedMove.startSquare(capture));
+        assertEquals(end, PackedMove.endSquare(capture));
+        assertTrue(PackedMove.isCapture(capture));
+        assertFalse(PackedMove.isPromotion(capture));
+      }
+    }
+  }
+
+  @Test
+  public void everyPromotionPieceRoundTrips() {
+    List<ChessPiece.PieceType> promotionPieces =
+        List.of(
+            ChessPiece.PieceType.QUEEN,
+            ChessPiece.PieceType.ROOK,
+            ChessPiece.PieceType.BISHOP,
+            ChessPiece.PieceType.KNIGHT);
+
+    for (ChessPiece.PieceType promotionPiece : promotionPieces) {
+      // b7 takes a8, the highest squares and both flags, so no field can spill into another
+      int move = PackedMove.promotion(49, 56, promotionPiece, PackedMove.CAPTURE_FLAG);
+
+      assertEquals(49, PackedMove.startSquare(move));
+      assertEquals(56, PackedMove.endSquare(move));
+      assertTrue(PackedMove.isCapture(move));
+      assertTrue(PackedMove.isPromotion(move));
+      assertEquals(promotionPiece, PackedMove.promotionPiece(move));
+    }
+  }
+
+  @Test
+  public void promotionsToAKingOrPawnAreRejected() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> PackedMove.promotion(52, 60, ChessPiece.PieceType.KING, 0));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> PackedMove.promotion(52, 60, ChessPiece.PieceType.PAWN, 0));
+  }
+
+  @Test
+  public void chessMovesRoundTrip() {
+    ChessMove quiet = new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null);
+    ChessMove promotion =
+        new ChessMove(
+            new ChessPosition(2, 1), new ChessPosition(1, 1), ChessPiece.PieceType.KNIGHT);
+
+    assertEquals(quiet, PackedMove.toChessMove(PackedMove.of(quiet, 0)));
+    assertEquals(promotion, PackedMove.toChessMove(PackedMove.of(promotion, 0)));
+    assertTrue(PackedMove.isPromotion(PackedMove.of(promotion, 0)));
+  }
+
+  @Test
+  public void moveListGrowsPastItsCapacityInOrder() {
+    MoveList moves = new MoveList(2);
+    for (int i = 0; i < 100; i++) {
+      moves.add(PackedMove.of(i % 64, 63 - i % 64, 0));
+    }
+
+    assertEquals(100, moves.size());
+    for (int i = 0; i < 100; i++) {
+      assertEquals(PackedMove.of(i % 64, 63 - i % 64, 0), moves.get(i));
+    }
+  }
+
+  @Test
+  public void clearingAndTruncatingKeepTheListReusable() {
+    MoveList moves = new MoveList(4);
+    for (int i = 0; i < 10; i++) {
+      moves.add(i);
+    }
+
+    moves.truncate(3);
+    assertEquals(3, moves.size());
+    assertThrows(IndexOutOfBoundsException.class, () -> moves.truncate(4));
+
+    moves.clear();
+    assertTrue(moves.isEmpty());
+    assertTrue(moves.toChessMoves().isEmpty());
+
+    moves.add(PackedMove.of(12, 28, 0));
+    assertEquals(1, moves.size());
+    assertEquals(
+        List.of(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null)),
+        List.copyOf(moves.toChessMoves()));
+  }
+}
@@ -0,0 +1,134 @@
+package chess.rules;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+public class SlidingAttacksTests {
+  private static final int[][] ROOK_DIRECTIONS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+  private static final int[][] BISHOP_DIRECTIONS = {{1, 1}, {1, -1}, {-1, 1}, {-1, -1}};
+
+  @Test
+  public void rookStopsAtTheFirstBlockerOnEachRay() {
+    // Rook on d4, blockers on d6 and b4
+    long occupied = bit(6, 4) | bit(4, 2);
+    long expected =
+        bit(5, 4) | bit(6, 4) | bit(3, 4) | bit(2, 4) | bit(1, 4)
+            | bit(4, 3) | bit(4, 2) | bit(4, 5) | bit(4, 6) | bit(4, 7) | bit(4, 8);
+
+    assertEquals(expected, SlidingAttacks.rookAttacks(square(4, 4), occupied));
+  }
+
+  @Test
+  public void bishopStopsAtTheFirstBlockerOnEachRay() {
+    // Bishop on c1, blocker on e3 and a piece on c2 that isn't on a diagonal
+    long occupied = bit(3, 5) | bit(2, 3);
+    long expected = bit(2, 4) | bit(3, 5) | bit(2, 2) | bit(3, 1);
+
+    assertEquals(expected, SlidingAttacks.bishopAttacks(square(1, 3), occupied));
+  }
+
+  @Test
+  public void cornerPiecesOnAnEmptyBoardSeeTheWholeLine() {
+    long longDiagonal = 0;
+    long firstRowAndColumn = 0;
+    for (int i = 2; i <= 8; i++) {
+      longDiagonal |= bit(i, i);
+      firstRowAndColumn |= bit(1, i) | bit(i, 1);
+    }
+
+    assertEquals(longDiagonal, SlidingAttacks.bishopAttacks(square(1, 1), 0));
+    assertEquals(firstRowAndColumn, SlidingAttacks.rookAttacks(square(1, 1), 0));
+    assertEquals(
+        longDiagonal | firstRowAndColumn, SlidingAttacks.queenAttacks(square(1, 1), 0));
+  }
+
+  @Test
+  public void tablesMatchAPositionByPositionWalkForRandomBlockers() {
+    Random random = new Random(3);
+
+    for (int square = 0; square < 64; square++) {
+      for (int trial = 0; trial < 200; trial++) {
+        // Sparse and dense boards both matter, so vary how many squares are filled
+        long occupied = random.nextLong();
+        for (int thin = random.nextInt(4); thin > 0; thin--) {
+          occupied &= random.nextLong();
+        }
+        occupied &= ~(1L << square);
+
+        ChessBoard board = boardWithBlockers(square, occupied);
+        ChessPosition position = ChessPosition.fromSquare(square);
+
+        assertEquals(
+            walk(board, position, ROOK_DIRECTIONS),
+            SlidingAttacks.rookAttacks(square, occupied),
+            String.format("rook on %s with occupancy %016x", position, occupied));
+        assertEquals(
+            walk(board, position, BISHOP_DIRECTIONS),
+            SlidingAttacks.bishopAttacks(square, occupied),
+            String.format("bishop on %s with occupancy %016x", position, occupied));
+      }
+    }
+  }
+
+  /**
+   * The ray walk the movement rules used before the magic tables: step one position at a time
+   * until leaving the board or reaching an occupied position, which is included when it holds an
+   * enemy piece. Every blocker here is an enemy, so the result is the attack set.
+   */
+  private static long walk(ChessBoard board, ChessPosition startPosition, int[][] directions) {
+    long attacks = 0;
+
+    for (int[] direction : directions) {
+      int row = startPosition.getRow();
+      int col = startPosition.getColumn();
+
+      while (true) {
+        row += direction[0];
+        col += direction[1];
+
+        ChessPosition endPosition = new ChessPosition(row, col);
+
+        if (!board.isRealPosition(endPosition)) {
+          break;
+        }
+
+        attacks |= bit(row, col);
+
+        if (board.isOccupiedAt(endPosition)) {
+          break;
+        }
+      }
+    }
+
+    return attacks;
+  }
+
+  private static ChessBoard boardWithBlockers(int square, long occupied) {
+    ChessBoard board = new ChessBoard();
+    board.addPiece(
+        ChessPosition.fromSquare(square),
+        new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN));
+    for (int blocker = 0; blocker < 64; blocker++) {
+      if ((occupied & (1L << blocker)) != 0) {
+        board.addPiece(
+            ChessPosition.fromSquare(blocker),
+            new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+      }
+    }
+    return board;
+  }
+
+  private static int square(int row, int col) {
+    return (row - 1) * 8 + (col - 1);
+  }
+
+  private static long bit(int row, int col) {
+    return 1L << square(row, col);
+  }
+}